@@ -0,0 +1,110 @@
+package com.mylearning.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.movieservice.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson (de)serialization of the payloads movie-service reads from movie-info-service / movie-review-service
+// and writes to its clients. The ObjectMapper is built like Spring Boot builds the one WebFlux uses
+// (Jackson2ObjectMapperBuilder, ISO dates), readers and writers are created once like the codecs do.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private ObjectWriter movieInfoWriter;
+    private ObjectReader movieInfoReader;
+    private ObjectWriter reviewWriter;
+    private ObjectReader reviewReader;
+    private ObjectWriter movieWriter;
+    private ObjectReader movieReader;
+
+    private MovieInfo movieInfo;
+    private Review review;
+    private Movie movie;
+
+    private byte[] movieInfoJson;
+    private byte[] reviewJson;
+    private byte[] movieJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        movieInfoWriter = objectMapper.writerFor(MovieInfo.class);
+        movieInfoReader = objectMapper.readerFor(MovieInfo.class);
+        reviewWriter = objectMapper.writerFor(Review.class);
+        reviewReader = objectMapper.readerFor(Review.class);
+        movieWriter = objectMapper.writerFor(Movie.class);
+        movieReader = objectMapper.readerFor(Movie.class);
+
+        movieInfo = new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+        review = new Review("r1", 1L, "Awesome Movie", 9.0);
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            reviews.add(new Review("r" + i, 1L, "Awesome Movie " + i, 8.0 + i % 3));
+        }
+        movie = new Movie(movieInfo, reviews);
+
+        movieInfoJson = movieInfoWriter.writeValueAsBytes(movieInfo);
+        reviewJson = reviewWriter.writeValueAsBytes(review);
+        movieJson = movieWriter.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] movieInfo_write() throws IOException {
+        return movieInfoWriter.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public MovieInfo movieInfo_read() throws IOException {
+        return movieInfoReader.readValue(movieInfoJson);
+    }
+
+    @Benchmark
+    public byte[] review_write() throws IOException {
+        return reviewWriter.writeValueAsBytes(review);
+    }
+
+    @Benchmark
+    public Review review_read() throws IOException {
+        return reviewReader.readValue(reviewJson);
+    }
+
+    // MovieInfo + 10 reviews, the /api/v1/movies/{id} response
+    @Benchmark
+    public byte[] movie_write() throws IOException {
+        return movieWriter.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public Movie movie_read() throws IOException {
+        return movieReader.readValue(movieJson);
+    }
+}
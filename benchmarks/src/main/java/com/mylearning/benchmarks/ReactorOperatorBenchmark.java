@@ -0,0 +1,117 @@
+package com.mylearning.benchmarks;
+
+import com.mylearning.reactiveprogrammingusingreactor.MonoAndFluxGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The operators of MonoAndFluxGeneratorService, subscribed synchronously so only the operator cost is measured.
+// Where the service method has no delay it is called as is (zip, zipWith, transform, flatMap); the concatMap,
+// async flatMap and mergeSequential examples sleep (splitString_withDelay, delayElements), so those are rebuilt here
+// with the same shape minus the delay: names -> map(toUpperCase) -> filter(length) -> xxxMap(split into letters).
+// "names" scales the input so the per element cost shows up next to the assembly cost of the 3 name samples.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactorOperatorBenchmark {
+
+    @Param({"3", "300"})
+    private int names;
+
+    private MonoAndFluxGeneratorService service;
+    private List<String> namesList;
+
+    @Setup
+    public void setUp() {
+        service = new MonoAndFluxGeneratorService();
+        List<String> samples = List.of("alex", "ben", "chloe");
+        namesList = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            namesList.add(samples.get(i % samples.size()));
+        }
+    }
+
+    @Benchmark
+    public void flatMap(Blackhole blackhole) {
+        letters().flatMap(this::splitString).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void concatMap(Blackhole blackhole) {
+        letters().concatMap(this::splitString).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flatMapSequential(Blackhole blackhole) {
+        letters().flatMapSequential(this::splitString).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void mergeSequential(Blackhole blackhole) {
+        Flux.mergeSequential(letters(), letters()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void zip(Blackhole blackhole) {
+        Flux.zip(letters(), letters(), (first, second) -> first + second).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void zipWith(Blackhole blackhole) {
+        letters().zipWith(letters(), (first, second) -> first + second).subscribe(blackhole::consume);
+    }
+
+    // the service methods themselves, fixed 3 names input
+
+    @Benchmark
+    public void service_namesFlux_flatmap(Blackhole blackhole) {
+        service.namesFlux_flatmap(3).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void service_namesFlux_transform(Blackhole blackhole) {
+        service.namesFlux_transform(3).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void service_explore_zip(Blackhole blackhole) {
+        service.explore_zip().subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void service_explore_zip_1(Blackhole blackhole) {
+        service.explore_zip_1().subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void service_explore_zipWith(Blackhole blackhole) {
+        service.explore_zipWith().subscribe(blackhole::consume);
+    }
+
+    private Flux<String> letters() {
+        return Flux.fromIterable(namesList)
+                .map(String::toUpperCase)
+                .filter(s -> s.length() > 3);
+    }
+
+    private Flux<String> splitString(String name) {
+        return Flux.fromArray(name.split(""));
+    }
+}
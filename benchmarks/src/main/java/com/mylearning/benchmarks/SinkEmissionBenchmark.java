@@ -0,0 +1,112 @@
+package com.mylearning.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.TimeUnit;
+
+// tryEmitNext throughput of the sink flavors shown in SinksDemo (and the directBestEffort one the review topics use).
+// Every invocation builds a fresh sink, subscribes "subscribers" consumers and emits ELEMENTS values, so
+// replay().all() cannot grow across invocations; the score is per emitted element (OperationsPerInvocation).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SinkEmissionBenchmark {
+
+    private static final int ELEMENTS = 1_000;
+
+    @Param({"1", "4"})
+    private int subscribers;
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void unicast_onBackpressureBuffer(Blackhole blackhole) {
+        // one subscriber only, whatever the param says
+        Sinks.Many<Integer> sink = Sinks.many().unicast().onBackpressureBuffer();
+        sink.asFlux().subscribe(blackhole::consume);
+        emit(sink);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void multicast_onBackpressureBuffer(Blackhole blackhole) {
+        emitTo(Sinks.many().multicast().onBackpressureBuffer(), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void multicast_directBestEffort(Blackhole blackhole) {
+        emitTo(Sinks.many().multicast().directBestEffort(), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void replay_all(Blackhole blackhole) {
+        emitTo(Sinks.many().replay().all(), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void replay_latest(Blackhole blackhole) {
+        emitTo(Sinks.many().replay().latest(), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void replay_limit(Blackhole blackhole) {
+        emitTo(Sinks.many().replay().limit(16), blackhole);
+    }
+
+    // Sinks.one() holds a single value, measured as one sink per value
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void one(Blackhole blackhole) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            Sinks.One<Integer> sink = Sinks.one();
+            for (int s = 0; s < subscribers; s++) {
+                sink.asMono().subscribe(blackhole::consume);
+            }
+            sink.tryEmitValue(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void empty(Blackhole blackhole) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            Sinks.Empty<Void> sink = Sinks.empty();
+            for (int s = 0; s < subscribers; s++) {
+                sink.asMono().subscribe(null, blackhole::consume, () -> blackhole.consume(true));
+            }
+            sink.tryEmitEmpty();
+        }
+    }
+
+    private void emitTo(Sinks.Many<Integer> sink, Blackhole blackhole) {
+        for (int s = 0; s < subscribers; s++) {
+            sink.asFlux().subscribe(blackhole::consume);
+        }
+        emit(sink);
+    }
+
+    private static void emit(Sinks.Many<Integer> sink) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            sink.tryEmitNext(i);
+        }
+        sink.tryEmitComplete();
+    }
+}
@@ -0,0 +1,104 @@
+package com.mylearning.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON against Smile for the two bodies movie-service receives on every /api/v1/movies/{id} : the MovieInfo from
+// movie-info-service and the review list from movie-review-service (SmileCodecAutoConfiguration of movie-commons).
+// Both mappers are built like the services build theirs. The payload sizes do not change between iterations,
+// they are printed once per fork : java -jar target/benchmarks.jar WireFormatBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    public String format;
+
+    // 2 is what the stand-ins return, 50 a movie people actually review
+    @Param({"2", "50"})
+    public int reviewCount;
+
+    private ObjectWriter movieInfoWriter;
+    private ObjectReader movieInfoReader;
+    private ObjectWriter reviewsWriter;
+    private ObjectReader reviewsReader;
+
+    private MovieInfo movieInfo;
+    private List<Review> reviews;
+
+    private byte[] movieInfoBytes;
+    private byte[] reviewsBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (format.equals("smile")) {
+            builder.factory(new SmileFactory());
+        }
+        ObjectMapper objectMapper = builder.build();
+        movieInfoWriter = objectMapper.writerFor(MovieInfo.class);
+        movieInfoReader = objectMapper.readerFor(MovieInfo.class);
+        reviewsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Review.class));
+        reviewsReader = objectMapper.readerForListOf(Review.class);
+
+        movieInfo = new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+        reviews = new ArrayList<>();
+        for (int i = 0; i < reviewCount; i++) {
+            reviews.add(new Review("66f1c0d2e4b0a1" + String.format("%010d", i), 1L, "Awesome Movie " + i, 8.0 + i % 3));
+        }
+
+        movieInfoBytes = movieInfoWriter.writeValueAsBytes(movieInfo);
+        reviewsBytes = reviewsWriter.writeValueAsBytes(reviews);
+        System.out.printf("%n%s payload bytes : movieInfo %d, %d reviews %d%n",
+                format, movieInfoBytes.length, reviewCount, reviewsBytes.length);
+    }
+
+    @Benchmark
+    public byte[] movieInfo_write() throws IOException {
+        return movieInfoWriter.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public MovieInfo movieInfo_read() throws IOException {
+        return movieInfoReader.readValue(movieInfoBytes);
+    }
+
+    @Benchmark
+    public byte[] reviews_write() throws IOException {
+        return reviewsWriter.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public List<Review> reviews_read() throws IOException {
+        return reviewsReader.readValue(reviewsBytes);
+    }
+}
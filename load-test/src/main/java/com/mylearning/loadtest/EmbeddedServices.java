@@ -0,0 +1,99 @@
+package com.mylearning.loadtest;
+
+import com.mylearning.moviecontracts.MovieInfoApi;
+import com.mylearning.moviecontracts.ReviewApi;
+import com.mylearning.movieinfoservice.MovieInfoServiceApplication;
+import com.mylearning.moviereviewservice.MovieReviewServiceApplication;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * The real movie-info-service and movie-review-service, in-process on an embedded Mongo, seeded with movies 1..movies
+ * and two reviews each. Movie ids are numeric on purpose : review-service keys reviews by a Long movieInfoId.
+ */
+public class EmbeddedServices implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final ConfigurableApplicationContext movieInfoService;
+    private final ConfigurableApplicationContext reviewService;
+
+    public EmbeddedServices(int movies) {
+        this.mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress mongo = mongod.current().getServerAddress();
+        String[] mongoArgs = {
+                "--spring.data.mongodb.host=" + mongo.getHost(),
+                "--spring.data.mongodb.port=" + mongo.getPort(),
+                "--spring.data.mongodb.database=loadtest"
+        };
+        this.movieInfoService = InProcess.start(MovieInfoServiceApplication.class, mongoArgs);
+        // seeding POSTs far more reviews than one client may write per second, the load itself is only GETs
+        this.reviewService = InProcess.start(MovieReviewServiceApplication.class, concat(mongoArgs,
+                "--review.rate-limit.capacity=1000000", "--review.rate-limit.refill-per-second=1000000"));
+        seed(movies);
+    }
+
+    public String movieInfoUrl() {
+        return "http://localhost:" + InProcess.port(movieInfoService) + MovieInfoApi.GET_MOVIE_INFO_URL;
+    }
+
+    public String reviewUrl() {
+        return "http://localhost:" + InProcess.port(reviewService) + ReviewApi.SEARCH_URL;
+    }
+
+    @Override
+    public void close() {
+        reviewService.close();
+        movieInfoService.close();
+        mongod.close();
+    }
+
+    private void seed(int movies) {
+        HttpClient client = HttpClient.create()
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+        String movieInfoBase = "http://localhost:" + InProcess.port(movieInfoService);
+        String reviewBase = "http://localhost:" + InProcess.port(reviewService);
+
+        Flux.range(1, movies)
+                .flatMap(movieId -> Flux.concat(
+                        post(client, movieInfoBase + MovieInfoApi.ADD_MOVIE_INFO_URL, """
+                                {"movieId": "%d", "name": "Movie %d", "year": 2005, "cast": ["Christian Bale", "Michael Cane"], "releaseDate": "2005-06-15"}
+                                """.formatted(movieId, movieId)),
+                        post(client, reviewBase + ReviewApi.BASE, """
+                                {"movieInfoId": %d, "comment": "Awesome Movie", "rating": 9.0}
+                                """.formatted(movieId)),
+                        post(client, reviewBase + ReviewApi.BASE, """
+                                {"movieInfoId": %d, "comment": "Excellent Movie", "rating": 8.0}
+                                """.formatted(movieId))), 8)
+                .then()
+                .block(Duration.ofMinutes(1));
+    }
+
+    private static String[] concat(String[] args, String... more) {
+        return Stream.concat(Arrays.stream(args), Arrays.stream(more)).toArray(String[]::new);
+    }
+
+    private static Mono<Void> post(HttpClient client, String url, String json) {
+        return client.post()
+                .uri(url)
+                .send(ByteBufFlux.fromString(Mono.just(json)))
+                .responseSingle((response, body) -> response.status().code() / 100 == 2
+                        ? Mono.<Void>empty()
+                        : body.asString().defaultIfEmpty("")
+                        .flatMap(error -> Mono.error(new IllegalStateException(
+                                "seeding " + url + " failed : " + response.status() + " " + error))));
+    }
+}
@@ -0,0 +1,130 @@
+package com.mylearning.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one endpoint saw during the measured phase. Latencies are recorded in microseconds, twice :
+ * <ul>
+ *     <li>response time : completion - intended start, the latency a user arriving on schedule would see,
+ *     corrected for coordinated omission (a stalled server cannot push back the schedule). Every scheduled request is
+ *     in it : a dropped, failed or timed out one is recorded at its deadline, the time the user gave up</li>
+ *     <li>service time : completion - actual send, what a closed-model tool would report, answered requests only</li>
+ * </ul>
+ * A wide gap between the two means requests queued in the client or the server, not that the server got faster.
+ */
+public class EndpointStats {
+
+    // up to one minute, 3 significant digits => ~1 microsecond resolution below 1ms
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder unexpectedStatus = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void record(long intendedStartNanos, long actualStartNanos, long endNanos, boolean expectedStatus) {
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, toMicros(endNanos - intendedStartNanos)));
+        serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, toMicros(endNanos - actualStartNanos)));
+        if (!expectedStatus) {
+            unexpectedStatus.increment();
+        }
+    }
+
+    // connection refused, timeout ... no response at all, no service time
+    void failed(long intendedStartNanos, long deadlineNanos) {
+        failures.increment();
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, toMicros(deadlineNanos - intendedStartNanos)));
+    }
+
+    // the outstanding cap was reached at the intended start, the request was never sent
+    void dropped(long intendedStartNanos, long deadlineNanos) {
+        dropped.increment();
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, toMicros(deadlineNanos - intendedStartNanos)));
+    }
+
+    // answered requests, expected status or not
+    public long count() {
+        return serviceTime.getTotalCount();
+    }
+
+    public long errors() {
+        return unexpectedStatus.sum() + failures.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public Histogram responseTime() {
+        return responseTime;
+    }
+
+    public Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    /**
+     * One summary line per endpoint, in milliseconds.
+     */
+    public String summary(double measuredSeconds) {
+        return String.format("%-16s %8d %7d %8d %9.1f | %s | %s",
+                name, count(), errors(), droppedCount(), count() / measuredSeconds,
+                percentiles(responseTime), percentiles(serviceTime));
+    }
+
+    public static String header() {
+        String percentiles = String.format("%8s %8s %8s %8s %8s", "p50", "p90", "p99", "p99.9", "max");
+        return String.format("%-16s %8s %7s %8s %9s | %s | %s%n%-53s| %-44s | %s",
+                "endpoint", "count", "errors", "dropped", "req/s", percentiles, percentiles,
+                "", "response time (ms, corrected)", "service time (ms)");
+    }
+
+    /**
+     * {@code <dir>/<endpoint>.hgrm} (response time) and {@code <dir>/<endpoint>.service.hgrm}, plain percentile
+     * distributions in milliseconds, paste them into the HdrHistogram plotter to compare runs.
+     */
+    public void writeReports(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        write(responseTime, dir.resolve(name + ".hgrm"));
+        write(serviceTime, dir.resolve(name + ".service.hgrm"));
+    }
+
+    private static void write(Histogram histogram, Path file) throws IOException {
+        try (var out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return String.format("%8.2f %8.2f %8.2f %8.2f %8.2f",
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
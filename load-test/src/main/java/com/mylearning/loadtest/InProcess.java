@@ -0,0 +1,37 @@
+package com.mylearning.loadtest;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Starts one of the services inside the load-test JVM.
+ */
+final class InProcess {
+
+    // the three application.yml are on the same classpath and only the first one would be read,
+    // so none is : every service runs on its defaults plus what is passed here
+    private static final String[] COMMON_ARGS = {
+            "--spring.config.name=load-test-no-config",
+            "--server.port=0",
+            "--logging.level.root=WARN"
+    };
+
+    private InProcess() {
+    }
+
+    static ConfigurableApplicationContext start(Class<?> application, String... args) {
+        String[] allArgs = Stream.concat(Arrays.stream(COMMON_ARGS), Arrays.stream(args)).toArray(String[]::new);
+        return new SpringApplicationBuilder(application)
+                .bannerMode(Banner.Mode.OFF)
+                .run(allArgs);
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
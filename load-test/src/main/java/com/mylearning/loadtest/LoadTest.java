@@ -0,0 +1,105 @@
+package com.mylearning.loadtest;
+
+import com.mylearning.movieservice.MovieServiceApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+/**
+ * End-to-end load test of movie-service's GET /api/v1/movies/{id} (movie-info + reviews behind it).
+ * <p>
+ * In stubs and embedded mode every service runs in this JVM next to the generator, good enough to compare two builds
+ * on the same machine; for absolute numbers run the services elsewhere and use --mode=external.
+ * Options : see {@link LoadTestOptions}.
+ */
+public class LoadTest {
+
+    // movie-service has no repository of its own, nothing for the Mongo auto-configuration to connect for
+    private static final String MOVIE_SERVICE_EXCLUDES = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Deque<AutoCloseable> started = new ArrayDeque<>();
+        try {
+            String target = start(options, started);
+            System.out.printf("%s mode, %d req/s against %s, warmup %s, measured %s%n",
+                    options.mode(), options.rate(), target, options.warmup(), options.duration());
+
+            var movie = new EndpointStats("movie");
+            var movieNotFound = new EndpointStats("movie-not-found");
+            var generator = new OpenModelLoadGenerator(target, options.maxOutstanding());
+            try {
+                generator.run(plan(options, movie, movieNotFound), options.rate(), options.warmup(), options.duration());
+            } finally {
+                generator.close();
+            }
+
+            double measuredSeconds = options.duration().toMillis() / 1000.0;
+            System.out.println(EndpointStats.header());
+            for (EndpointStats stats : List.of(movie, movieNotFound)) {
+                System.out.println(stats.summary(measuredSeconds));
+                stats.writeReports(options.reportDir());
+            }
+            System.out.println("percentile distributions written to " + options.reportDir().toAbsolutePath());
+        } finally {
+            while (!started.isEmpty()) {
+                started.pop().close();
+            }
+        }
+    }
+
+    // returns movie-service's base url
+    private static String start(LoadTestOptions options, Deque<AutoCloseable> started) {
+        String movieInfoUrl;
+        String reviewUrl;
+        switch (options.mode()) {
+            case EXTERNAL -> {
+                return options.target();
+            }
+            case STUBS -> {
+                var standIns = new StandIns(options.movies(), options.stubDelay());
+                started.push(standIns);
+                movieInfoUrl = standIns.movieInfoUrl();
+                reviewUrl = standIns.reviewUrl();
+            }
+            case EMBEDDED -> {
+                var services = new EmbeddedServices(options.movies());
+                started.push(services);
+                movieInfoUrl = services.movieInfoUrl();
+                reviewUrl = services.reviewUrl();
+            }
+            default -> throw new IllegalStateException("unknown mode : " + options.mode());
+        }
+        ConfigurableApplicationContext movieService = InProcess.start(MovieServiceApplication.class,
+                MOVIE_SERVICE_EXCLUDES,
+                // every expected 404 would log an error and its stack trace, the report counts unexpected statuses anyway
+                "--logging.level.com.mylearning.movieservice=OFF",
+                "--restClient.movie-info-service.url=" + movieInfoUrl,
+                "--restClient.review-service.url=" + reviewUrl);
+        started.push(movieService::close);
+        return "http://localhost:" + InProcess.port(movieService);
+    }
+
+    // called from the generator's single scheduling thread only, a plain SplittableRandom is fine
+    private static LongFunction<OpenModelLoadGenerator.Request> plan(LoadTestOptions options,
+                                                                    EndpointStats movie, EndpointStats movieNotFound) {
+        var random = new SplittableRandom(42);
+        return sequence -> {
+            if (random.nextDouble() < options.notFoundRatio()) {
+                long missingId = options.movies() + 1 + random.nextInt(1_000);
+                return new OpenModelLoadGenerator.Request(movieNotFound, "/api/v1/movies/" + missingId,
+                        status -> status == 404);
+            }
+            int movieId = 1 + random.nextInt(options.movies());
+            return new OpenModelLoadGenerator.Request(movie, "/api/v1/movies/" + movieId,
+                    status -> status == 200);
+        };
+    }
+}
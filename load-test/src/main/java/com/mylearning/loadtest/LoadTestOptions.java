@@ -0,0 +1,91 @@
+package com.mylearning.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}, every option is {@code --name=value}:
+ * <pre>
+ * --mode=stubs|embedded|external   where movie-service's downstreams come from        (stubs)
+ * --target=http://host:port        movie-service to drive, only with mode=external
+ * --rate=200                       requests per second, fixed whatever the latency  (open model)
+ * --duration=30s                   measured phase
+ * --warmup=10s                     run at the same rate first, nothing recorded
+ * --max-outstanding=2000           requests in flight before new ones are dropped (and counted)
+ * --movies=10                      movie ids served by the stand-ins / seeded in Mongo
+ * --not-found-ratio=0.1            share of the requests sent for a movie id that does not exist
+ * --stub-delay=0ms                 fixed delay of every stand-in response
+ * --report-dir=target/load-test    where the .hgrm files are written
+ * </pre>
+ */
+public record LoadTestOptions(Mode mode,
+                              String target,
+                              int rate,
+                              Duration duration,
+                              Duration warmup,
+                              int maxOutstanding,
+                              int movies,
+                              double notFoundRatio,
+                              Duration stubDelay,
+                              Path reportDir) {
+
+    public enum Mode {
+        /** movie-service in-process, movie-info / review served by WireMock */
+        STUBS,
+        /** all three services in-process, info and review on an embedded Mongo */
+        EMBEDDED,
+        /** nothing started, drive an already running movie-service */
+        EXTERNAL
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value, got : " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Mode mode = Mode.valueOf(values.getOrDefault("mode", "stubs").toUpperCase(Locale.ROOT));
+        String target = values.get("target");
+        if (mode == Mode.EXTERNAL && target == null) {
+            throw new IllegalArgumentException("--mode=external needs --target=http://host:port");
+        }
+        var options = new LoadTestOptions(
+                mode,
+                target,
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("max-outstanding", "2000")),
+                Integer.parseInt(values.getOrDefault("movies", "10")),
+                Double.parseDouble(values.getOrDefault("not-found-ratio", "0.1")),
+                duration(values.getOrDefault("stub-delay", "0ms")),
+                Path.of(values.getOrDefault("report-dir", "target/load-test")));
+        if (options.rate() <= 0 || options.movies() <= 0 || options.maxOutstanding() <= 0) {
+            throw new IllegalArgumentException("rate, movies and max-outstanding must be positive");
+        }
+        if (options.notFoundRatio() < 0 || options.notFoundRatio() > 1) {
+            throw new IllegalArgumentException("not-found-ratio must be within [0, 1]");
+        }
+        return options;
+    }
+
+    // 500ms, 30s, 2m
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("expected a duration like 500ms, 30s or 2m, got : " + value);
+        };
+    }
+}
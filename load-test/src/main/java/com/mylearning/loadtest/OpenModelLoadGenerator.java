@@ -0,0 +1,131 @@
+package com.mylearning.loadtest;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model generator : request n is due at start + n / rate, whether or not the previous ones completed.
+ * <p>
+ * A closed-model loop (send, wait, send) slows down with the server and never records the requests it did not send
+ * while waiting => coordinated omission, the tail looks far better than what users see. Here one thread keeps the
+ * schedule and only fires non-blocking Reactor Netty requests, latency is measured from the intended start so a stall
+ * shows up in every request scheduled behind it. When more than {@code maxOutstanding} requests are in flight the due
+ * one is dropped and counted, the schedule itself never moves.
+ * <p>
+ * Every request gets {@link #REQUEST_TIMEOUT} from its send to complete. A request that was dropped, failed or timed out
+ * is still recorded in the response time, at its deadline : leaving it out would again hide the worst requests.
+ */
+public class OpenModelLoadGenerator {
+
+    /**
+     * One scheduled request : which endpoint it counts for, what to GET, which statuses are expected.
+     */
+    public record Request(EndpointStats stats, String uri, IntPredicate expectedStatus) {
+    }
+
+    // pool wait, connect and response together : what a user waits at most before giving up
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ConnectionProvider connectionProvider;
+    private final int maxOutstanding;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    public OpenModelLoadGenerator(String baseUrl, int maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+        // one connection per outstanding request at most, a pool wait would be hidden queueing inside the generator
+        this.connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(maxOutstanding)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+                .baseUrl(baseUrl)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5_000);
+    }
+
+    /**
+     * Runs warmup then the measured phase at {@code ratePerSecond}, waits for the last responses and returns.
+     * Only requests whose intended start falls in the measured phase are recorded.
+     */
+    public void run(LongFunction<Request> plan, int ratePerSecond, Duration warmup, Duration duration) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measuredFrom = start + warmup.toNanos();
+        long end = measuredFrom + duration.toNanos();
+
+        for (long sequence = 0; ; sequence++) {
+            long intendedStart = start + sequence * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            waitUntil(intendedStart);
+            Request request = plan.apply(sequence);
+            boolean measured = intendedStart >= measuredFrom;
+            if (outstanding.get() >= maxOutstanding) {
+                if (measured) {
+                    request.stats().dropped(intendedStart, intendedStart + REQUEST_TIMEOUT.toNanos());
+                }
+                continue;
+            }
+            send(request, intendedStart, measured);
+        }
+        // every request ends by its deadline, the margin covers the last callbacks
+        awaitOutstanding(REQUEST_TIMEOUT.plusSeconds(5));
+    }
+
+    public void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    private void send(Request request, long intendedStart, boolean measured) {
+        outstanding.incrementAndGet();
+        long actualStart = System.nanoTime();
+        httpClient.get()
+                .uri(request.uri())
+                // read the whole body, the response is complete only once the last byte is in
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .timeout(REQUEST_TIMEOUT)
+                .doFinally(signal -> outstanding.decrementAndGet())
+                .subscribe(
+                        status -> {
+                            if (measured) {
+                                request.stats().record(intendedStart, actualStart, System.nanoTime(),
+                                        request.expectedStatus().test(status));
+                            }
+                        },
+                        // connection refused, reset, timeout ... the user waited until the deadline for nothing
+                        error -> {
+                            if (measured) {
+                                request.stats().failed(intendedStart, actualStart + REQUEST_TIMEOUT.toNanos());
+                            }
+                        });
+    }
+
+    private void awaitOutstanding(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    // park for the bulk of the wait, spin the last ~100µs : parkNanos alone oversleeps by 50µs+ on most kernels
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > 200_000) {
+                LockSupport.parkNanos(remaining - 100_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mylearning.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.mylearning.moviecontracts.MovieInfoApi;
+import com.mylearning.moviecontracts.ReviewApi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * WireMock stand-ins for movie-info-service and movie-review-service, the same stubs as movie-service's
+ * MovieInfoControllerIntegrationTest but for every movie id in 1..movies, anything else is a 404 from movie-info.
+ */
+public class StandIns implements AutoCloseable {
+
+    private final WireMockServer server;
+
+    public StandIns(int movies, Duration delay) {
+        // the default 10 jetty threads would become the bottleneck long before movie-service does
+        this.server = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(200).disableRequestJournal());
+        server.start();
+
+        String movieInfo = resource("stand-ins/movieInfo.json");
+        String reviews = resource("stand-ins/reviews.json");
+        int delayMillis = (int) delay.toMillis();
+
+        server.stubFor(get(urlPathMatching(MovieInfoApi.GET_MOVIE_INFO_URL + "/.*"))
+                .atPriority(10)
+                .willReturn(aResponse().withStatus(404).withFixedDelay(delayMillis)));
+        for (int movieId = 1; movieId <= movies; movieId++) {
+            server.stubFor(get(urlPathEqualTo(MovieInfoApi.GET_MOVIE_INFO_URL + "/" + movieId))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(movieInfo.replace("\"movieInfoId\": \"1\"", "\"movieInfoId\": \"" + movieId + "\""))
+                            .withFixedDelay(delayMillis)));
+            server.stubFor(get(urlPathEqualTo(ReviewApi.SEARCH_URL))
+                    .withQueryParam(ReviewApi.MOVIE_INFO_ID, equalTo(String.valueOf(movieId)))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(reviews.replace("\"movieInfoId\": 1", "\"movieInfoId\": " + movieId))
+                            .withFixedDelay(delayMillis)));
+        }
+    }
+
+    public String movieInfoUrl() {
+        return server.baseUrl() + MovieInfoApi.GET_MOVIE_INFO_URL;
+    }
+
+    public String reviewUrl() {
+        return server.baseUrl() + ReviewApi.SEARCH_URL;
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    static String resource(String name) {
+        try (var in = StandIns.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("missing classpath resource : " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mylearning.moviecommons.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mylearning.moviecontracts.WireFormat;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// Smile (application/x-jackson-smile, binary JSON) for the other services, JSON for everybody else.
+// WebFlux registers Smile codecs by itself once jackson-dataformat-smile is on the classpath, but on a plain
+// ObjectMapper : these are built from Spring Boot's builder so both formats share the spring.jackson.* settings.
+// JSON stays the first writer, no Accept header or */* (browsers, curl, postman) still gets JSON.
+// Spring Boot applies the same customizer to the WebClient.Builder, movie-service's WebClientConfig then asks for Smile.
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+public class SmileCodecAutoConfiguration {
+
+    public static final MediaType SMILE = MediaType.parseMediaType(WireFormat.SMILE);
+
+    // without them the codecs would claim application/json, the mapper alone does not tell them it writes Smile
+    private static final MimeType[] SMILE_MIME_TYPES = {
+            SMILE,
+            MimeType.valueOf(WireFormat.STREAM_SMILE)
+    };
+
+    @Bean
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper = builder.factory(new SmileFactory()).build();
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new SmileArrayEncoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE_MIME_TYPES));
+        };
+    }
+
+    // AbstractJackson2Encoder joins a Flux with JSON's '[' ',' ']' bytes around one Smile document per element,
+    // nothing reads that back : outside the streaming type the Flux is collected and written as one Smile array.
+    static class SmileArrayEncoder extends Jackson2SmileEncoder {
+
+        SmileArrayEncoder(ObjectMapper smileMapper) {
+            super(smileMapper, SMILE_MIME_TYPES);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, @Nullable MimeType mimeType,
+                                       @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono || getStreamingMediaTypeSeparator(mimeType) != null) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream)
+                    .collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mylearning.moviecommons.mongo;
+
+import com.mongodb.client.result.UpdateResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Sets the version field to 0 on the documents written before their class had a @Version property.
+// Spring Data takes an entity whose version is null for a new one : save() of such a document read back inserts it
+// again and fails on the duplicate _id (a 500) instead of updating it.
+// Runs once per start, for every @Document class with a @Version property, in a lifecycle phase before the web
+// server's : no request can read a document that still lacks its version. A context that only refreshes (the CDS
+// training run of the startup profile, spring.context.exit=onRefresh) starts no lifecycle and never waits for Mongo.
+// The filter ({version: {$exists: false}}) scans the collection, once per start; when nothing is left to backfill the
+// scan is all it costs. A failure (Mongo unreachable) is logged and the start goes on, the next start retries.
+@Slf4j
+public class MongoVersionBackfill implements SmartLifecycle {
+
+    // the web server starts in SmartLifecycle.DEFAULT_PHASE - 2048
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final Duration timeout;
+
+    private volatile boolean running;
+
+    public MongoVersionBackfill(ReactiveMongoTemplate reactiveMongoTemplate, Duration timeout) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        try {
+            backfill().block(timeout);
+        } catch (RuntimeException e) {
+            log.warn("Version backfill failed, documents without a version cannot be updated until it runs : {}", e.getMessage());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // the number of documents that got a version
+    public Mono<Long> backfill() {
+        return Flux.fromIterable(reactiveMongoTemplate.getConverter().getMappingContext().getPersistentEntities())
+                .filter(entity -> entity.isAnnotationPresent(Document.class) && entity.hasVersionProperty())
+                .concatMap(this::backfill)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> backfill(MongoPersistentEntity<?> entity) {
+        String field = entity.getRequiredVersionProperty().getFieldName();
+        return reactiveMongoTemplate.updateMulti(Query.query(Criteria.where(field).exists(false)),
+                        Update.update(field, 0L), entity.getType())
+                .map(UpdateResult::getModifiedCount)
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("{} : {} documents without {} set to 0", entity.getCollection(), count, field);
+                    }
+                });
+    }
+}
@@ -0,0 +1,27 @@
+package com.mylearning.moviecommons.mongo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.time.Duration;
+
+// MongoVersionBackfill in the services with a reactive Mongo template (not movie-service), mongo.version-backfill.enabled
+// turns it off once every document has its version.
+@AutoConfiguration(after = MongoReactiveDataAutoConfiguration.class)
+@ConditionalOnClass(ReactiveMongoTemplate.class)
+@ConditionalOnBean(ReactiveMongoTemplate.class)
+@ConditionalOnProperty(name = "mongo.version-backfill.enabled", matchIfMissing = true)
+public class MongoVersionBackfillAutoConfiguration {
+
+    @Bean
+    public MongoVersionBackfill mongoVersionBackfill(ReactiveMongoTemplate reactiveMongoTemplate,
+                                                     @Value("${mongo.version-backfill.timeout:30s}") Duration timeout) {
+        return new MongoVersionBackfill(reactiveMongoTemplate, timeout);
+    }
+}
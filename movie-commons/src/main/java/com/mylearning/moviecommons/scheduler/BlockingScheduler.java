@@ -0,0 +1,108 @@
+package com.mylearning.moviecommons.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// The one place blocking code (JDBC, legacy SDKs, anything that parks the calling thread) is allowed to run.
+// A blocking call made on a Netty event loop stalls every connection of that loop, wrapped in call() / run() it is
+// subscribed on this scheduler instead and its result comes back as a Mono.
+// blocking.scheduler picks where it runs :
+//   auto            : a virtual thread per task when the JVM has them (Java 21+), bounded elastic otherwise
+//   virtual         : a virtual thread per task, the service does not start on a JVM without them
+//   bounded-elastic : platform threads, at most thread-cap of them and queue-cap tasks waiting for one
+// Virtual threads are not capped : the blocking resource behind them (a JDBC pool, an SDK's connections) is what
+// limits the concurrency, the same as it would for a servlet container on virtual threads.
+// The services are compiled for Java 17, the virtual thread factory method is looked up at runtime.
+// Registered by BlockingSchedulerAutoConfiguration.
+@Slf4j
+public class BlockingScheduler implements DisposableBean {
+
+    public enum Mode {
+        AUTO, VIRTUAL, BOUNDED_ELASTIC
+    }
+
+    private static final String NAME = "blocking";
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = virtualThreadPerTaskExecutor();
+
+    private final Scheduler scheduler;
+    private final boolean virtual;
+
+    @Autowired
+    public BlockingScheduler(@Value("${blocking.scheduler:auto}") String mode,
+                             @Value("${blocking.bounded-elastic.thread-cap:0}") int threadCap,
+                             @Value("${blocking.bounded-elastic.queue-cap:0}") int queueCap) {
+        // 0 keeps Reactor's defaults : 10 threads per core, 100000 queued tasks
+        this(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_')),
+                threadCap > 0 ? threadCap : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                queueCap > 0 ? queueCap : Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE);
+    }
+
+    public BlockingScheduler(Mode mode, int threadCap, int queueCap) {
+        if (mode == Mode.VIRTUAL && !virtualThreadsAvailable()) {
+            throw new IllegalStateException("blocking.scheduler=virtual needs Java 21 or later, running on "
+                    + Runtime.version() + " (use auto to fall back to bounded-elastic)");
+        }
+        this.virtual = mode != Mode.BOUNDED_ELASTIC && virtualThreadsAvailable();
+        this.scheduler = virtual
+                ? Schedulers.fromExecutorService(newVirtualThreadPerTaskExecutor(), NAME)
+                : Schedulers.newBoundedElastic(threadCap, queueCap, NAME);
+        log.info("Blocking calls run on {}", virtual ? "virtual threads" : "bounded elastic (" + threadCap + " threads)");
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    // the callable runs once per subscription, a null result completes the Mono empty
+    public <T> Mono<T> call(Callable<T> blockingCall) {
+        return Mono.fromCallable(blockingCall).subscribeOn(scheduler);
+    }
+
+    public Mono<Void> run(Runnable blockingCall) {
+        return Mono.fromRunnable(blockingCall).subscribeOn(scheduler).then();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Executors.newVirtualThreadPerTaskExecutor failed", e);
+        }
+    }
+
+    private static MethodHandle virtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mylearning.moviecommons.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+// BlockingScheduler for every service, configured from blocking.* ; disposed with the context
+@AutoConfiguration
+public class BlockingSchedulerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BlockingScheduler blockingScheduler(@Value("${blocking.scheduler:auto}") String mode,
+                                               @Value("${blocking.bounded-elastic.thread-cap:0}") int threadCap,
+                                               @Value("${blocking.bounded-elastic.queue-cap:0}") int queueCap) {
+        return new BlockingScheduler(mode, threadCap, queueCap);
+    }
+}
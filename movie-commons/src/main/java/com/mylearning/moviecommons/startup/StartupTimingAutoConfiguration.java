@@ -0,0 +1,21 @@
+package com.mylearning.moviecommons.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+// StartupTimingReport in every reactive web service, with or without the startup profile : the plain exec jar is what
+// startup-compare.sh measures the profile against
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StartupTimingAutoConfiguration {
+
+    @Bean
+    public StartupTimingReport startupTimingReport(@Value("${spring.main.lazy-initialization:false}") boolean lazyInitialization,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new StartupTimingReport(lazyInitialization, meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mylearning.moviecommons.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Boot logs "Started ... in 2.1 seconds" and publishes application.ready.time, neither says when the service first
+// answered : the first request also pays for lazily created beans (the startup profile), class loading and the
+// interpreter. Both are measured from the JVM start, logged once and kept as gauges, the log line is what
+// startup-compare.sh at the root of the repository reads. The requests of the services' warm-up carry WARM_UP_HEADER
+// and do not count.
+@Slf4j
+public class StartupTimingReport implements WebFilter, ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+    public static final String WARM_UP_HEADER = "X-Warm-Up";
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final boolean lazyInitialization;
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    private volatile long readyMillis = -1;
+    private volatile long firstRequestMillis = -1;
+
+    public StartupTimingReport(boolean lazyInitialization, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.lazyInitialization = lazyInitialization;
+        meterRegistry.ifAvailable(registry -> TimeGauge.builder("application.first.request.time", this,
+                        TimeUnit.MILLISECONDS, report -> report.firstRequestMillis < 0 ? Double.NaN : report.firstRequestMillis)
+                .description("Time from the JVM start to the first answered request")
+                .register(registry));
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        readyMillis = System.currentTimeMillis() - jvmStartMillis;
+    }
+
+    // first in the chain, so a request rejected by a later filter still counts as answered
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (firstRequestSeen.get() || exchange.getRequest().getHeaders().containsKey(WARM_UP_HEADER)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> {
+            if (firstRequestSeen.compareAndSet(false, true)) {
+                firstRequestMillis = System.currentTimeMillis() - jvmStartMillis;
+                log.info("Startup timing : first request {} {} answered {} ms after the JVM start, ready after {} ms (aot={}, cds={}, lazy={})",
+                        exchange.getRequest().getMethod(), exchange.getRequest().getPath(), firstRequestMillis, readyMillis,
+                        AotDetector.useGeneratedArtifacts(), sharedArchive(), lazyInitialization);
+            }
+        });
+    }
+
+    private static boolean sharedArchive() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.mylearning.moviecommons.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Graceful drain of the long-lived streams on shutdown. Cut all at once, every client of a pod reconnects in the same
+// second and the stampede lands on the pods that are left. On stop :
+//  - new streams are refused (isDraining, the endpoints answer 503 with a Retry-After)
+//  - the open ones are closed one by one, spread evenly over streams.drain.window, each ending with a terminal event
+//    that tells the client when to reconnect : a random delay between reconnect-min-delay and reconnect-max-delay
+// Runs before Spring Boot's graceful shutdown of the web server (server.shutdown), which then only has to wait for the
+// ordinary requests : it would otherwise wait for streams that never end, and cut them at timeout-per-shutdown-phase.
+@Slf4j
+public class StreamDrain implements SmartLifecycle {
+
+    // WebServerGracefulShutdownLifecycle stops at DEFAULT_PHASE - 1024, the higher phase stops first
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 512;
+
+    private final Duration window;
+    private final Duration reconnectMinDelay;
+    private final Duration reconnectMaxDelay;
+
+    private final Set<OpenStream> openStreams = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private volatile boolean draining;
+
+    public StreamDrain(@Value("${streams.drain.window:10s}") Duration window,
+                       @Value("${streams.drain.reconnect-min-delay:1s}") Duration reconnectMinDelay,
+                       @Value("${streams.drain.reconnect-max-delay:5s}") Duration reconnectMaxDelay) {
+        if (reconnectMaxDelay.compareTo(reconnectMinDelay) < 0) {
+            throw new IllegalArgumentException("streams.drain.reconnect-max-delay is below reconnect-min-delay");
+        }
+        this.window = window;
+        this.reconnectMinDelay = reconnectMinDelay;
+        this.reconnectMaxDelay = reconnectMaxDelay;
+    }
+
+    // the SSE event closing a drained stream : no data (a client decoding the stream into its element type skips it),
+    // the retry field is the reconnect delay EventSource honours
+    public static <T> ServerSentEvent<T> drainEvent(Duration reconnectDelay) {
+        return ServerSentEvent.<T>builder()
+                .event("drain")
+                .retry(reconnectDelay)
+                .comment("draining, reconnect in " + reconnectDelay.toMillis() + " ms")
+                .build();
+    }
+
+    /**
+     * The stream, closed with {@code terminalEvent} of a jittered reconnect delay when the drain reaches it.
+     * Subscribed while already draining (the isDraining check raced the shutdown), it is closed right away.
+     */
+    public <T> Flux<T> drainable(Flux<T> stream, Function<Duration, T> terminalEvent) {
+        return Flux.defer(() -> {
+            var openStream = new OpenStream();
+            openStreams.add(openStream);
+            if (draining) {
+                openStream.close(reconnectDelay());
+            }
+            return stream.takeUntilOther(openStream.closed.asMono())
+                    .concatWith(Mono.fromSupplier(() -> openStream.reconnectDelay).map(terminalEvent))
+                    .doFinally(signal -> openStreams.remove(openStream));
+        });
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    // for the Retry-After of a refused stream, whole seconds
+    public long retryAfterSeconds() {
+        return (reconnectDelay().toMillis() + 999) / 1000;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // the context always calls stop(Runnable), this only starts the drain
+    @Override
+    public void stop() {
+        stop(() -> {
+        });
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        draining = true;
+        List<OpenStream> streams = List.copyOf(openStreams);
+        if (streams.isEmpty()) {
+            running = false;
+            callback.run();
+            return;
+        }
+        log.info("Draining {} streams over {} ms", streams.size(), window.toMillis());
+        Flux.fromIterable(streams)
+                .delayElements(window.dividedBy(streams.size()))
+                .doOnNext(openStream -> openStream.close(reconnectDelay()))
+                .doFinally(signal -> {
+                    running = false;
+                    callback.run();
+                })
+                .subscribe();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private Duration reconnectDelay() {
+        long spread = reconnectMaxDelay.toMillis() - reconnectMinDelay.toMillis();
+        return reconnectMinDelay.plusMillis(ThreadLocalRandom.current().nextLong(spread + 1));
+    }
+
+    private static final class OpenStream {
+        private final Sinks.Empty<Void> closed = Sinks.empty();
+        private volatile Duration reconnectDelay; // set once closed by the drain, null for a stream that ended itself
+
+        void close(Duration reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            closed.tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mylearning.moviecommons.stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+// StreamDrain for every reactive web service, configured from streams.drain.*
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StreamDrainAutoConfiguration {
+
+    @Bean
+    public StreamDrain streamDrain(@Value("${streams.drain.window:10s}") Duration window,
+                                   @Value("${streams.drain.reconnect-min-delay:1s}") Duration reconnectMinDelay,
+                                   @Value("${streams.drain.reconnect-max-delay:5s}") Duration reconnectMaxDelay) {
+        return new StreamDrain(window, reconnectMinDelay, reconnectMaxDelay);
+    }
+}
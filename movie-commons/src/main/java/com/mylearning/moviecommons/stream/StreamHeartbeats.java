@@ -0,0 +1,178 @@
+package com.mylearning.moviecommons.stream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.epoll.EpollChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Idle streams send nothing : proxies and load balancers cut them after their idle timeout, and a client that went
+// away without closing its connection keeps holding a subscription until TCP gives up, minutes later.
+//  - a heartbeat is merged into every stream each streams.heartbeat.interval : for SSE a comment line no EventSource
+//    or decoder turns into an event (sseHeartbeat), NDJSON has no comment line and the service passes an element of
+//    its own. Dropped while the subscriber has no demand, it never queues up.
+//  - a stream that delivered nothing (no event, no heartbeat) for streams.heartbeat.dead-after is dead : its client
+//    stopped reading and the buffers in between are full. The reaper ends it and closes its connection.
+//  - a client that vanished (no FIN, no ACK) is found by the kernel : TCP_USER_TIMEOUT (dead-after) drops a connection
+//    whose data stays unacknowledged that long, and the heartbeats make sure there is always data. It is set on the
+//    connection of a stream while the stream is open, never on the server : an ordinary request has no heartbeat, a
+//    client that is slow to acknowledge a large response would be dropped. Epoll only, the option is ignored on NIO
+//    (macOS, Windows) and on HTTP/2, where the stream does not own its connection.
+// Per stream (the tag), <metric-prefix>.stream.reaped counts the ones the reaper ended and <metric-prefix>.stream.active
+// the open ones, unless the service already has a gauge of its subscribers (streams.heartbeat.active-gauge=false).
+@Slf4j
+public class StreamHeartbeats implements DisposableBean {
+
+    private final Duration deadAfter;
+    private final String metricPrefix;
+    private final boolean activeGauge;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, StreamStats> statsByStream = new ConcurrentHashMap<>();
+    // one timer for every stream and the reaper, not one per subscriber
+    private final Flux<Long> ticks;
+    private final Disposable reaper;
+
+    @Autowired
+    public StreamHeartbeats(@Value("${streams.heartbeat.interval:15s}") Duration interval,
+                            @Value("${streams.heartbeat.dead-after:45s}") Duration deadAfter,
+                            @Value("${streams.heartbeat.metric-prefix:stream}") String metricPrefix,
+                            @Value("${streams.heartbeat.active-gauge:true}") boolean activeGauge,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(interval, deadAfter, metricPrefix, activeGauge, meterRegistry.getIfAvailable());
+    }
+
+    public StreamHeartbeats(Duration interval, Duration deadAfter, String metricPrefix, boolean activeGauge,
+                            MeterRegistry meterRegistry) {
+        if (deadAfter.compareTo(interval) <= 0) {
+            throw new IllegalArgumentException("streams.heartbeat.dead-after must be longer than the interval");
+        }
+        this.deadAfter = deadAfter;
+        this.metricPrefix = metricPrefix;
+        this.activeGauge = activeGauge;
+        this.meterRegistry = meterRegistry;
+        this.ticks = Flux.interval(interval).onBackpressureDrop().share();
+        this.reaper = ticks.subscribe(tick -> reapDeadStreams());
+    }
+
+    // the SSE heartbeat : a comment, no data
+    public static <T> ServerSentEvent<T> sseHeartbeat() {
+        return ServerSentEvent.<T>builder().comment("heartbeat").build();
+    }
+
+    /**
+     * The events with a heartbeat merged in every interval, tracked as {@code stream} (the tag of the metrics) until
+     * they end, the client leaves or the reaper finds the subscriber dead. {@code request} is the one the stream
+     * answers, its connection is closed when reaped.
+     */
+    public <T> Flux<T> withHeartbeats(String stream, ServerHttpRequest request, Flux<T> events, Supplier<T> heartbeat) {
+        return Flux.defer(() -> {
+            StreamStats stats = statsByStream.computeIfAbsent(stream, this::streamStats);
+            var trackedStream = new TrackedStream(connectionOf(request));
+            stats.active.add(trackedStream);
+            userTimeout(trackedStream.connection, (int) deadAfter.toMillis());
+            Sinks.Empty<Void> eventsDone = Sinks.empty();
+            Flux<T> heartbeats = ticks.onBackpressureDrop()
+                    .map(tick -> heartbeat.get())
+                    .takeUntilOther(eventsDone.asMono());
+            return Flux.merge(events.doFinally(signal -> eventsDone.tryEmitEmpty()), heartbeats)
+                    .doOnNext(item -> trackedStream.lastDeliveredNanos = System.nanoTime())
+                    .takeUntilOther(trackedStream.reaped.asMono())
+                    .doFinally(signal -> {
+                        stats.active.remove(trackedStream);
+                        userTimeout(trackedStream.connection, 0); // the system's, the connection may serve other requests
+                    });
+        });
+    }
+
+    // the only way to notice a peer that vanished while data is in flight, before the retransmissions give up
+    private static void userTimeout(Connection connection, int millis) {
+        if (connection != null && !connection.isDisposed()) {
+            connection.channel().config().setOption(EpollChannelOption.TCP_USER_TIMEOUT, millis);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reaper.dispose();
+    }
+
+    private void reapDeadStreams() {
+        long now = System.nanoTime();
+        for (StreamStats stats : statsByStream.values()) {
+            for (TrackedStream trackedStream : stats.active) {
+                if (now - trackedStream.lastDeliveredNanos > deadAfter.toNanos() && stats.active.remove(trackedStream)) {
+                    stats.reaped.increment();
+                    log.info("Reaped a {} stream, nothing delivered for {} ms", stats.stream,
+                            Duration.ofNanos(now - trackedStream.lastDeliveredNanos).toMillis());
+                    trackedStream.reaped.tryEmitEmpty();
+                    if (trackedStream.connection != null) {
+                        trackedStream.connection.dispose();
+                    }
+                }
+            }
+        }
+    }
+
+    private StreamStats streamStats(String stream) {
+        var stats = new StreamStats(stream);
+        if (meterRegistry == null) {
+            return stats;
+        }
+        if (activeGauge) {
+            Gauge.builder(metricPrefix + ".stream.active", stats.active, Set::size)
+                    .tag("stream", stream)
+                    .description("Open streams")
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder(metricPrefix + ".stream.reaped", stats.reaped, LongAdder::sum)
+                .tag("stream", stream)
+                .description("Streams ended because their subscriber stopped reading")
+                .register(meterRegistry);
+        return stats;
+    }
+
+    // null outside Reactor Netty (a mock request, WebTestClient bound to the context), the stream is still ended
+    private static Connection connectionOf(ServerHttpRequest request) {
+        try {
+            Object nativeRequest = ServerHttpRequestDecorator.getNativeRequest(request);
+            return nativeRequest instanceof Connection connection ? connection : null;
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return null; // a decorator hiding the native request, or no native request at all
+        }
+    }
+
+    private record StreamStats(String stream, Set<TrackedStream> active, LongAdder reaped) {
+        StreamStats(String stream) {
+            this(stream, ConcurrentHashMap.newKeySet(), new LongAdder());
+        }
+    }
+
+    private static final class TrackedStream {
+        private final Connection connection;
+        private final Sinks.Empty<Void> reaped = Sinks.empty();
+        private volatile long lastDeliveredNanos = System.nanoTime();
+
+        TrackedStream(Connection connection) {
+            this.connection = connection;
+        }
+    }
+}
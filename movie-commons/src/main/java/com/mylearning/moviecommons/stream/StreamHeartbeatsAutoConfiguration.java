@@ -0,0 +1,28 @@
+package com.mylearning.moviecommons.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+// StreamHeartbeats in the services that configure streams.heartbeat.interval (movie-info-service,
+// movie-review-service), a service without heartbeats does not run the ticking reaper
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(prefix = "streams.heartbeat", name = "interval")
+public class StreamHeartbeatsAutoConfiguration {
+
+    @Bean
+    public StreamHeartbeats streamHeartbeats(@Value("${streams.heartbeat.interval}") Duration interval,
+                                             @Value("${streams.heartbeat.dead-after:45s}") Duration deadAfter,
+                                             @Value("${streams.heartbeat.metric-prefix:stream}") String metricPrefix,
+                                             @Value("${streams.heartbeat.active-gauge:true}") boolean activeGauge,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new StreamHeartbeats(interval, deadAfter, metricPrefix, activeGauge, meterRegistry.getIfAvailable());
+    }
+}
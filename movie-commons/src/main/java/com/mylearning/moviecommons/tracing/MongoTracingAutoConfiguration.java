@@ -0,0 +1,29 @@
+package com.mylearning.moviecommons.tracing;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+// Every Mongo command becomes a child span of the request that issued it, in the services with a reactive Mongo client.
+// The reactive driver has no thread to hang the current span on, the ContextProvider reads it from the
+// Reactor context instead (spring.reactor.context-propagation=auto puts it there).
+@AutoConfiguration(after = ObservationAutoConfiguration.class, before = MongoReactiveAutoConfiguration.class)
+@ConditionalOnClass({MongoClient.class, MongoObservationCommandListener.class})
+@ConditionalOnBean(ObservationRegistry.class)
+public class MongoTracingAutoConfiguration {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTracingCustomizer(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
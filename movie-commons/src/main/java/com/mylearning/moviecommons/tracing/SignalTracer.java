@@ -0,0 +1,110 @@
+package com.mylearning.moviecommons.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Replacement for the unconditional .log() at the end of the reactive chains.
+// .log() logs every signal at INFO and formats every element, on every request. Here each traced chain gets a named
+// Endpoint, and tracing it is decided per request:
+//  - sample rate 0 (the default) => trace(flux) returns the very same flux, no operator, no allocation
+//  - otherwise a sampled request gets a span: one "tracing.spans" line with the terminal signal, element count and duration
+//  - tracing.signals=true additionally logs every signal of the sampled requests, like .log() did
+// Endpoints are switched at startup with tracing.endpoints (comma separated names or *) and tracing.sample-rate,
+// and at runtime through the tracing actuator endpoint (TracingEndpoint).
+// One bean per service, from TracingAutoConfiguration.
+public class SignalTracer {
+
+    private static final Logger SPANS = LoggerFactory.getLogger("tracing.spans");
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Set<String> enabledAtStartup;
+    private final double startupSampleRate;
+    private final boolean signals;
+
+    public SignalTracer(@Value("${tracing.endpoints:}") Set<String> enabledAtStartup,
+                        @Value("${tracing.sample-rate:1.0}") double startupSampleRate,
+                        @Value("${tracing.signals:false}") boolean signals) {
+        this.enabledAtStartup = enabledAtStartup;
+        this.startupSampleRate = startupSampleRate;
+        this.signals = signals;
+    }
+
+    // call once and keep the result in a field, the lookup is not meant for the request path
+    public Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> new Endpoint(n,
+                enabledAtStartup.contains(n) || enabledAtStartup.contains("*") ? startupSampleRate : 0));
+    }
+
+    public Map<String, Double> sampleRates() {
+        Map<String, Double> rates = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> rates.put(name, endpoint.sampleRate));
+        return rates;
+    }
+
+    public void setSampleRate(String name, double sampleRate) {
+        endpoint(name).sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+    public final class Endpoint {
+
+        private final String name;
+        private volatile double sampleRate;
+
+        private Endpoint(String name, double sampleRate) {
+            this.name = name;
+            this.sampleRate = sampleRate;
+        }
+
+        public <T> Flux<T> trace(Flux<T> flux) {
+            if (!sampled()) {
+                return flux;
+            }
+            return Flux.defer(() -> {
+                Span span = new Span();
+                return (signals ? flux.log("tracing.signals." + name) : flux)
+                        .doOnNext(element -> span.elements++)
+                        .doFinally(span::end);
+            });
+        }
+
+        public <T> Mono<T> trace(Mono<T> mono) {
+            if (!sampled()) {
+                return mono;
+            }
+            return Mono.defer(() -> {
+                Span span = new Span();
+                return (signals ? mono.log("tracing.signals." + name) : mono)
+                        .doOnNext(element -> span.elements++)
+                        .doFinally(span::end);
+            });
+        }
+
+        private boolean sampled() {
+            double rate = sampleRate;
+            return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+        }
+
+        // one per traced subscription, onNext and doFinally are serialized by the reactive streams contract
+        private final class Span {
+
+            private final long start = System.nanoTime();
+            private long elements;
+
+            private void end(SignalType signal) {
+                SPANS.info("span endpoint={} signal={} elements={} durationMicros={}",
+                        name, signal, elements, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
+    }
+}
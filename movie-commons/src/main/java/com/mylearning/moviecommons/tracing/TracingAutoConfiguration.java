@@ -0,0 +1,47 @@
+package com.mylearning.moviecommons.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+// SignalTracer for every service, its actuator endpoint when it is exposed (JMX by default, see TracingEndpoint),
+// and the local span file when tracing.export.file is set and OpenTelemetry is on the classpath.
+@AutoConfiguration
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SignalTracer signalTracer(@Value("${tracing.endpoints:}") Set<String> enabledAtStartup,
+                                     @Value("${tracing.sample-rate:1.0}") double startupSampleRate,
+                                     @Value("${tracing.signals:false}") boolean signals) {
+        return new SignalTracer(enabledAtStartup, startupSampleRate, signals);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public TracingEndpoint tracingEndpoint(SignalTracer signalTracer) {
+        return new TracingEndpoint(signalTracer);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(SpanExporter.class)
+    @ConditionalOnProperty("tracing.export.file")
+    static class FileExport {
+
+        @Bean
+        public FileSpanExporter fileSpanExporter(@Value("${tracing.export.file}") Path file, ObjectMapper objectMapper) throws IOException {
+            return new FileSpanExporter(file, objectMapper);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mylearning.moviecommons.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+// runtime switch for SignalTracer, over JMX (org.springframework.boot:type=Endpoint,name=Tracing) :
+// sampleRates                 => sample rate of every traced endpoint
+// setSampleRate(name, 0.1)    => trace 10% of the requests of {name}
+// disable(name)               => back to off
+// The write operations change what the service logs : the services expose it over JMX only. Adding it to
+// management.endpoints.web.exposure.include puts them on /actuator/tracing/{name} for anyone who can reach the
+// port, do that only behind something that authenticates the caller.
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+
+    private final SignalTracer signalTracer;
+
+    public TracingEndpoint(SignalTracer signalTracer) {
+        this.signalTracer = signalTracer;
+    }
+
+    @ReadOperation
+    public Map<String, Double> sampleRates() {
+        return signalTracer.sampleRates();
+    }
+
+    @WriteOperation
+    public Map<String, Double> setSampleRate(@Selector String name, double sampleRate) {
+        signalTracer.setSampleRate(name, sampleRate);
+        return signalTracer.sampleRates();
+    }
+
+    @DeleteOperation
+    public Map<String, Double> disable(@Selector String name) {
+        signalTracer.setSampleRate(name, 0);
+        return signalTracer.sampleRates();
+    }
+}
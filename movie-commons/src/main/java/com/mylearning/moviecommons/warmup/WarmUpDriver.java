@@ -0,0 +1,118 @@
+package com.mylearning.moviecommons.warmup;
+
+import com.mylearning.moviecommons.startup.StartupTimingReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+
+// The loop behind the services' WarmUpRunners, which only pick the calls : iterations rounds of every call, concurrency
+// rounds at a time, until the budget or maxDuration is spent. A call that fails counts and the loop goes on.
+// The latency of every call is kept, the report compares the p99 of the first and the last tenth.
+@Slf4j
+public class WarmUpDriver {
+
+    private final int iterations;
+    private final int concurrency;
+    private final Duration maxDuration;
+    private final ServerCodecConfigurer serverCodecConfigurer;
+
+    public WarmUpDriver(int iterations, int concurrency, Duration maxDuration, ServerCodecConfigurer serverCodecConfigurer) {
+        this.iterations = iterations;
+        this.concurrency = concurrency;
+        this.maxDuration = maxDuration;
+        this.serverCodecConfigurer = serverCodecConfigurer;
+    }
+
+    // against the service's own server, with the header StartupTimingReport leaves out
+    public static WebClient localWebClient(WebClient.Builder webClientBuilder, WebServerApplicationContext context) {
+        return webClientBuilder.clone()
+                .baseUrl("http://localhost:" + context.getWebServer().getPort())
+                .defaultHeader(StartupTimingReport.WARM_UP_HEADER, "true")
+                .build();
+    }
+
+    // a URI template, not a concatenated path : the client metrics get one uri tag for the endpoint, not one per id
+    public static Mono<?> get(WebClient webClient, MediaType accept, String uriTemplate, Object... uriVariables) {
+        return webClient.get()
+                .uri(uriTemplate, uriVariables)
+                .accept(accept)
+                .exchangeToMono(response -> response.releaseBody());
+    }
+
+    // the server's writers and readers, with their ObjectMappers and serializer caches, in JSON and Smile
+    @SuppressWarnings("unchecked")
+    public Mono<?> codecs(ResolvableType resolvableType, Object value) {
+        return Mono.fromRunnable(() -> {
+            for (MediaType mediaType : List.of(MediaType.APPLICATION_JSON, SMILE)) {
+                var encoder = serverCodecConfigurer.getWriters().stream()
+                        .filter(writer -> writer instanceof EncoderHttpMessageWriter<?>)
+                        .map(writer -> ((EncoderHttpMessageWriter<Object>) writer).getEncoder())
+                        .filter(candidate -> candidate.canEncode(resolvableType, mediaType))
+                        .findFirst()
+                        .orElseThrow();
+                var decoder = serverCodecConfigurer.getReaders().stream()
+                        .filter(reader -> reader instanceof DecoderHttpMessageReader<?>)
+                        .map(reader -> ((DecoderHttpMessageReader<Object>) reader).getDecoder())
+                        .filter(candidate -> candidate.canDecode(resolvableType, mediaType))
+                        .findFirst()
+                        .orElseThrow();
+                DataBuffer buffer = encoder.encodeValue(value, DefaultDataBufferFactory.sharedInstance, resolvableType, mediaType, null);
+                decoder.decode(buffer, resolvableType, mediaType, null); // releases the buffer
+            }
+        });
+    }
+
+    // blocks until done
+    public WarmUpReport run(List<IntFunction<Mono<?>>> calls) {
+        long[] latencies = new long[iterations * calls.size()];
+        var completed = new AtomicInteger();
+        var failed = new AtomicInteger();
+        long start = System.nanoTime();
+        Flux.range(0, iterations)
+                .flatMap(i -> Flux.fromIterable(calls)
+                        .concatMap(call -> Mono.defer(() -> {
+                            long callStart = System.nanoTime();
+                            return call.apply(i)
+                                    .onErrorResume(ex -> {
+                                        failed.incrementAndGet();
+                                        return Mono.empty();
+                                    })
+                                    .then(Mono.fromRunnable(() -> latencies[completed.getAndIncrement()] = System.nanoTime() - callStart));
+                        })), concurrency)
+                .take(maxDuration)
+                .blockLast();
+        int requests = completed.get();
+        if (failed.get() == requests && requests > 0) {
+            log.warn("Warm-up : every call failed, the service is not warmed up");
+        }
+        int window = Math.max(1, requests / 10);
+        return new WarmUpReport(requests / calls.size(), requests, failed.get(), Duration.ofNanos(System.nanoTime() - start),
+                p99(Arrays.copyOfRange(latencies, 0, Math.min(window, requests))),
+                p99(Arrays.copyOfRange(latencies, Math.max(0, requests - window), requests)));
+    }
+
+    private static Duration p99(long[] latencies) {
+        if (latencies.length == 0) {
+            return Duration.ZERO;
+        }
+        Arrays.sort(latencies);
+        return Duration.ofNanos(latencies[(int) Math.ceil(latencies.length * 0.99) - 1]);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mylearning.moviecommons.warmup;
+
+import java.time.Duration;
+
+public record WarmUpReport(int iterations, int calls, int failedCalls, Duration took, Duration firstP99, Duration lastP99) {
+
+    @Override
+    public String toString() {
+        return String.format("%d iterations (%d calls, %d failed) in %d ms, p99 %.2f ms -> %.2f ms (first and last tenth of the calls, %.1fx)",
+                iterations, calls, failedCalls, took.toMillis(), firstP99.toNanos() / 1e6, lastP99.toNanos() / 1e6,
+                lastP99.isZero() ? 0.0 : (double) firstP99.toNanos() / lastP99.toNanos());
+    }
+}
@@ -0,0 +1,65 @@
+package com.mylearning.moviecommons.web;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Content negotiation for the responses written by hand (handler functions, the error handler), where WebFlux
+// does not negotiate : the Accept header is parsed, its ranges sorted by quality (ties : concrete before wildcard,
+// then the order the client sent), and the first range that includes one of the offered types picks it.
+// Substring checks get "application/x-jackson-smile, application/json;q=0.9" (movie-service) wrong, this does not.
+public final class AcceptNegotiation {
+
+    private static final Comparator<MediaType> BY_PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private AcceptNegotiation() {
+    }
+
+    // offered in the server's order of preference, the first one wins for */* or when there is no Accept header.
+    // null when the client accepts none of them, or sent an Accept header that does not parse
+    public static MediaType preferred(String accept, MediaType... offered) {
+        if (accept == null || accept.isBlank()) {
+            return offered[0];
+        }
+        try {
+            return preferred(MediaType.parseMediaTypes(accept), offered);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    public static MediaType preferred(List<MediaType> accepted, MediaType... offered) {
+        if (accepted.isEmpty()) {
+            return offered[0];
+        }
+        List<MediaType> ranges = new ArrayList<>(accepted);
+        ranges.sort(BY_PREFERENCE); // stable : equal ranges keep the client's order
+        for (MediaType range : ranges) {
+            if (range.getQualityValue() == 0.0) {
+                break; // q=0 is "not acceptable", only those are left
+            }
+            for (MediaType type : offered) {
+                if (range.includes(type) && !excluded(ranges, type)) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    // "*/*, text/plain;q=0" accepts everything but text/plain
+    private static boolean excluded(List<MediaType> ranges, MediaType type) {
+        for (MediaType range : ranges) {
+            if (range.getQualityValue() == 0.0 && range.equalsTypeAndSubtype(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
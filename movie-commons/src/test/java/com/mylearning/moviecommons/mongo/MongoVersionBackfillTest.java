@@ -0,0 +1,77 @@
+package com.mylearning.moviecommons.mongo;
+
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MongoVersionBackfillTest {
+
+    @Document
+    static class Versioned {
+        @Id
+        String id;
+        @Version
+        Long version;
+    }
+
+    @Document
+    static class Unversioned {
+        @Id
+        String id;
+    }
+
+    @Test
+    void backfill_setsTheMissingVersionsOfVersionedDocumentsOnly() {
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(Versioned.class, Unversioned.class));
+        mappingContext.initialize();
+        var template = Mockito.mock(ReactiveMongoTemplate.class);
+        Mockito.when(template.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        Mockito.when(template.updateMulti(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(Versioned.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(3, 3L, null)));
+
+        StepVerifier.create(new MongoVersionBackfill(template, Duration.ofSeconds(1)).backfill())
+                .expectNext(3L)
+                .verifyComplete();
+
+        Mockito.verify(template).updateMulti(
+                Mockito.argThat(q -> q.getQueryObject().toJson().equals("{\"version\": {\"$exists\": false}}")),
+                Mockito.argThat(u -> u.getUpdateObject().toJson().equals("{\"$set\": {\"version\": 0}}")),
+                Mockito.eq(Versioned.class));
+        Mockito.verify(template, Mockito.never()).updateMulti(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(Unversioned.class));
+    }
+
+    // Mongo unreachable : logged, the start goes on
+    @Test
+    void start_failureDoesNotFailTheStart() {
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(Versioned.class));
+        mappingContext.initialize();
+        var template = Mockito.mock(ReactiveMongoTemplate.class);
+        Mockito.when(template.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        Mockito.when(template.updateMulti(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(Versioned.class)))
+                .thenReturn(Mono.error(new IllegalStateException("Timed out while waiting for a server")));
+
+        var backfill = new MongoVersionBackfill(template, Duration.ofSeconds(1));
+        backfill.start();
+
+        Mockito.verify(template).updateMulti(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(Versioned.class));
+        assertTrue(backfill.isRunning());
+    }
+}
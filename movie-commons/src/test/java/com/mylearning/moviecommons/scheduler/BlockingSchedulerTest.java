@@ -0,0 +1,109 @@
+package com.mylearning.moviecommons.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// BlockHound is installed for every test of this module (blockhound-junit-platform), the parallel scheduler stands
+// in for a Netty event loop : both are non-blocking threads to it.
+public class BlockingSchedulerTest {
+
+    private BlockingScheduler blockingScheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (blockingScheduler != null) {
+            blockingScheduler.destroy();
+        }
+    }
+
+    @Test
+    void blockingCall_onANonBlockingThread_detected() {
+        var blockingCall = Mono.fromCallable(BlockingSchedulerTest::sleepAndGetThreadName)
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(blockingCall)
+                .expectErrorSatisfies(ex -> assertTrue(ex instanceof BlockingOperationError, ex.toString()))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void call_offloadsFromANonBlockingThread() {
+        blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.AUTO, 2, 10);
+
+        var offloaded = Mono.just("request")
+                .publishOn(Schedulers.parallel())
+                .flatMap(request -> blockingScheduler.call(BlockingSchedulerTest::sleepAndGetThreadName));
+
+        StepVerifier.create(offloaded)
+                .assertNext(threadName -> assertFalse(threadName.startsWith("parallel"), threadName))
+                .verifyComplete();
+    }
+
+    @Test
+    void run_offloadsFromANonBlockingThread() {
+        blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.AUTO, 2, 10);
+
+        var offloaded = Mono.just("request")
+                .publishOn(Schedulers.parallel())
+                .flatMap(request -> blockingScheduler.run(BlockingSchedulerTest::sleepAndGetThreadName));
+
+        StepVerifier.create(offloaded).verifyComplete();
+    }
+
+    @Test
+    void auto_virtualThreadsWhenTheJvmHasThem() {
+        blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.AUTO, 2, 10);
+
+        assertEquals(BlockingScheduler.virtualThreadsAvailable(), blockingScheduler.isVirtual());
+        assertEquals(Runtime.version().feature() >= 21, blockingScheduler.isVirtual());
+    }
+
+    @Test
+    void boundedElastic_evenWhenTheJvmHasVirtualThreads() {
+        blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.BOUNDED_ELASTIC, 2, 10);
+
+        assertFalse(blockingScheduler.isVirtual());
+        StepVerifier.create(blockingScheduler.call(BlockingSchedulerTest::sleepAndGetThreadName))
+                .assertNext(threadName -> assertTrue(threadName.startsWith("blocking"), threadName))
+                .verifyComplete();
+    }
+
+    @Test
+    void virtual_withoutVirtualThreads_failsFast() {
+        if (BlockingScheduler.virtualThreadsAvailable()) {
+            blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.VIRTUAL, 2, 10);
+            assertTrue(blockingScheduler.isVirtual());
+        } else {
+            var ex = assertThrows(IllegalStateException.class,
+                    () -> new BlockingScheduler(BlockingScheduler.Mode.VIRTUAL, 2, 10));
+            assertTrue(ex.getMessage().contains("Java 21"), ex.getMessage());
+        }
+    }
+
+    @Test
+    void mode_fromTheProperty() {
+        blockingScheduler = new BlockingScheduler("bounded-elastic", 0, 0);
+
+        assertFalse(blockingScheduler.isVirtual());
+    }
+
+    private static String sleepAndGetThreadName() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,102 @@
+package com.mylearning.moviecommons.stream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamDrainTest {
+
+    private static final Duration MIN = Duration.ofSeconds(1);
+    private static final Duration MAX = Duration.ofSeconds(5);
+
+    @Test
+    void drainable_streamEndingItself_noTerminalEvent() {
+        var streamDrain = new StreamDrain(Duration.ofMillis(100), MIN, MAX);
+
+        StepVerifier.create(streamDrain.drainable(Flux.just("a", "b"), delay -> "drain"))
+                .expectNext("a", "b")
+                .verifyComplete();
+    }
+
+    @Test
+    void stop_everyStreamClosedWithAJitteredReconnectDelay_spreadOverTheWindow() throws InterruptedException {
+        var streamDrain = new StreamDrain(Duration.ofMillis(400), MIN, MAX);
+        streamDrain.start();
+        Sinks.Many<String> sink = Sinks.many().multicast().directBestEffort();
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+        List<Long> closedAfter = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        streamDrain.drainable(sink.asFlux(), delay -> "drain " + delay.toMillis())
+                .doOnComplete(() -> closedAfter.add(System.nanoTime() - start))
+                .subscribe(first::add);
+        streamDrain.drainable(sink.asFlux(), delay -> "drain " + delay.toMillis())
+                .doOnComplete(() -> closedAfter.add(System.nanoTime() - start))
+                .subscribe(second::add);
+        sink.tryEmitNext("a");
+
+        var drained = new CountDownLatch(1);
+        streamDrain.stop(drained::countDown);
+
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        assertFalse(streamDrain.isRunning());
+        assertTrue(streamDrain.isDraining());
+        for (List<String> received : List.of(first, second)) {
+            assertEquals(2, received.size(), received.toString());
+            assertEquals("a", received.get(0));
+            assertReconnectHint(received.get(1));
+        }
+        // one closed after about half the window, the other at its end
+        assertEquals(2, closedAfter.size());
+        assertTrue(closedAfter.get(0) >= Duration.ofMillis(150).toNanos()
+                && closedAfter.get(1) >= Duration.ofMillis(350).toNanos(), closedAfter.toString());
+    }
+
+    @Test
+    void drainable_subscribedWhileDraining_closedRightAway() {
+        var streamDrain = new StreamDrain(Duration.ofMillis(100), MIN, MAX);
+        streamDrain.start();
+        streamDrain.stop(() -> {
+        });
+
+        StepVerifier.create(streamDrain.drainable(Flux.<String>never(), delay -> "drain " + delay.toMillis()))
+                .assertNext(StreamDrainTest::assertReconnectHint)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        long retryAfter = streamDrain.retryAfterSeconds();
+        assertTrue(retryAfter >= 1 && retryAfter <= 5, String.valueOf(retryAfter));
+    }
+
+    @Test
+    void stop_withoutStreams_doneRightAway() {
+        var streamDrain = new StreamDrain(Duration.ofSeconds(10), MIN, MAX);
+        streamDrain.start();
+        var done = new CountDownLatch(1);
+
+        streamDrain.stop(done::countDown);
+
+        assertTrue(done.getCount() == 0 && !streamDrain.isRunning());
+    }
+
+    @Test
+    void reconnectMaxDelayBelowTheMin_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamDrain(Duration.ofSeconds(10), MAX, MIN));
+    }
+
+    private static void assertReconnectHint(String event) {
+        long millis = Long.parseLong(event.substring("drain ".length()));
+        assertTrue(millis >= MIN.toMillis() && millis <= MAX.toMillis(), event);
+    }
+}
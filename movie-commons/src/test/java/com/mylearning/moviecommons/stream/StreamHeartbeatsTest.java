@@ -0,0 +1,97 @@
+package com.mylearning.moviecommons.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamHeartbeatsTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(50);
+    private static final Duration DEAD_AFTER = Duration.ofMillis(300);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StreamHeartbeats streamHeartbeats = new StreamHeartbeats(INTERVAL, DEAD_AFTER, "movieinfo", true, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        streamHeartbeats.destroy();
+    }
+
+    @Test
+    void withHeartbeats_idleStream_heartbeatsBetweenTheEvents() {
+        Sinks.Many<String> events = Sinks.many().multicast().directBestEffort();
+
+        StepVerifier.create(stream(events.asFlux()))
+                .expectNext("heartbeat")
+                .then(() -> events.tryEmitNext("event"))
+                .expectNext("event")
+                .expectNext("heartbeat", "heartbeat")
+                .then(events::tryEmitComplete)
+                .expectComplete() // the heartbeats end with the events
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void withHeartbeats_activeStreamsGauge() {
+        Sinks.Many<String> events = Sinks.many().multicast().directBestEffort();
+
+        StepVerifier.create(stream(events.asFlux()))
+                .then(() -> assertEquals(1.0, meterRegistry.get("movieinfo.stream.active").tag("stream", "test").gauge().value()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(0.0, meterRegistry.get("movieinfo.stream.active").tag("stream", "test").gauge().value());
+        assertEquals(0.0, meterRegistry.get("movieinfo.stream.reaped").tag("stream", "test").functionCounter().count());
+    }
+
+    // no demand => nothing is delivered, not even the heartbeats : the subscriber is dead and the stream reaped
+    @Test
+    void withHeartbeats_subscriberNotReading_reaped() {
+        StepVerifier.create(stream(Flux.never()), 0)
+                .expectSubscription()
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(1.0, meterRegistry.get("movieinfo.stream.reaped").tag("stream", "test").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("movieinfo.stream.active").tag("stream", "test").gauge().value());
+    }
+
+    // a service counting its subscribers itself (review.stream.subscribers) : no second gauge of the same streams
+    @Test
+    void withHeartbeats_withoutActiveGauge_reapedCounterOnly() {
+        var withoutGauge = new StreamHeartbeats(INTERVAL, DEAD_AFTER, "review", false, meterRegistry);
+        var request = MockServerWebExchange.from(MockServerHttpRequest.get("/stream")).getRequest();
+
+        StepVerifier.create(withoutGauge.withHeartbeats("all", request, Flux.<String>never(), () -> "heartbeat"))
+                .expectNext("heartbeat")
+                .thenCancel()
+                .verify(Duration.ofSeconds(2));
+        withoutGauge.destroy();
+
+        assertNull(meterRegistry.find("review.stream.active").gauge());
+        assertEquals(0.0, meterRegistry.get("review.stream.reaped").tag("stream", "all").functionCounter().count());
+    }
+
+    @Test
+    void deadAfterNotLongerThanTheInterval_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StreamHeartbeats(INTERVAL, INTERVAL, "movieinfo", true, meterRegistry));
+    }
+
+    private Flux<String> stream(Flux<String> events) {
+        var request = MockServerWebExchange.from(MockServerHttpRequest.get("/stream")).getRequest();
+        return streamHeartbeats.withHeartbeats("test", request, events, () -> "heartbeat");
+    }
+}
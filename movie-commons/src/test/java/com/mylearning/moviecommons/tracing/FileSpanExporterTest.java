@@ -0,0 +1,61 @@
+package com.mylearning.moviecommons.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSpanExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void export_oneJsonLinePerSpan(@TempDir Path dir) throws Exception {
+
+        var file = dir.resolve("spans/spans.jsonl");
+        var exporter = new FileSpanExporter(file, objectMapper);
+        var span = TestSpanData.builder()
+                .setSpanContext(SpanContext.create("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault()))
+                .setResource(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), "movie-service")))
+                .setName("GET /v1/movies/{id}")
+                .setKind(SpanKind.SERVER)
+                .setStatus(StatusData.ok())
+                .setStartEpochNanos(2_000_000)
+                .setEndEpochNanos(5_000_000)
+                .setAttributes(Attributes.of(AttributeKey.stringKey("uri"), "/v1/movies/\"abc\"\n\u0001"))
+                .setHasEnded(true)
+                .setTotalRecordedEvents(0)
+                .setTotalRecordedLinks(0)
+                .build();
+
+        assertTrue(exporter.export(List.of(span, span)).isSuccess());
+        exporter.shutdown();
+
+        var lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode json = objectMapper.readTree(lines.get(0));
+        assertEquals("0af7651916cd43dd8448eb211c80319c", json.get("traceId").asText());
+        assertEquals("movie-service", json.get("service").asText());
+        assertEquals("SERVER", json.get("kind").asText());
+        assertEquals("OK", json.get("status").asText());
+        assertEquals(3000, json.get("durationMicros").asLong());
+        // quotes, new lines and control characters survive the round trip
+        assertEquals("/v1/movies/\"abc\"\n\u0001", json.get("attributes").get("uri").asText());
+    }
+}
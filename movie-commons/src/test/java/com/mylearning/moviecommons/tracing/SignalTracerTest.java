@@ -0,0 +1,60 @@
+package com.mylearning.moviecommons.tracing;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignalTracerTest {
+
+    @Test
+    void disabledEndpoint_returnsTheSamePublisher() {
+
+        var signalTracer = new SignalTracer(Set.of(), 1.0, false);
+        var endpoint = signalTracer.endpoint("MovieInfoService.getMovieInfos");
+
+        var flux = Flux.just("a", "b");
+        var mono = Mono.just("a");
+
+        // nothing assembled => nothing allocated per request
+        assertSame(flux, endpoint.trace(flux));
+        assertSame(mono, endpoint.trace(mono));
+    }
+
+    @Test
+    void switchedOnAtRuntime_tracesWithoutChangingTheSignals() {
+
+        var signalTracer = new SignalTracer(Set.of(), 1.0, true);
+        var endpoint = signalTracer.endpoint("MovieInfoService.getMovieInfos");
+
+        signalTracer.setSampleRate("MovieInfoService.getMovieInfos", 1.0);
+        var flux = Flux.just("a", "b");
+        var traced = endpoint.trace(flux);
+
+        assertNotSame(flux, traced);
+        StepVerifier.create(traced)
+                .expectNext("a", "b")
+                .verifyComplete();
+        StepVerifier.create(endpoint.trace(Mono.error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+
+        signalTracer.setSampleRate("MovieInfoService.getMovieInfos", 0);
+        assertSame(flux, endpoint.trace(flux));
+    }
+
+    @Test
+    void startupConfig_enablesListedEndpoints() {
+
+        var signalTracer = new SignalTracer(Set.of("MovieInfoService.addMovieInfo"), 0.5, false);
+        signalTracer.endpoint("MovieInfoService.addMovieInfo");
+        signalTracer.endpoint("MovieInfoService.getMovieInfo");
+
+        assertEquals(Map.of("MovieInfoService.addMovieInfo", 0.5, "MovieInfoService.getMovieInfo", 0.0),
+                signalTracer.sampleRates());
+    }
+}
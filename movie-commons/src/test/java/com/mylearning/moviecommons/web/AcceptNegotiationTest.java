@@ -0,0 +1,41 @@
+package com.mylearning.moviecommons.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AcceptNegotiationTest {
+
+    private static MediaType preferred(String accept) {
+        return AcceptNegotiation.preferred(accept, MediaType.APPLICATION_JSON, SMILE);
+    }
+
+    @Test
+    void preferred_highestQualityWins() {
+        // movie-service's WebClientConfig
+        assertEquals(SMILE, preferred("application/x-jackson-smile, application/json;q=0.9"));
+        assertEquals(MediaType.APPLICATION_JSON, preferred("application/x-jackson-smile;q=0.5, application/json"));
+        // equal quality : the client's order
+        assertEquals(SMILE, preferred("application/x-jackson-smile, application/json"));
+    }
+
+    @Test
+    void preferred_wildcardsGetTheServersFirstChoice() {
+        assertEquals(MediaType.APPLICATION_JSON, preferred(null));
+        assertEquals(MediaType.APPLICATION_JSON, preferred("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, preferred("text/html, application/*;q=0.8"));
+        // a concrete range beats a wildcard of the same quality
+        assertEquals(SMILE, preferred("*/*, application/x-jackson-smile"));
+    }
+
+    @Test
+    void preferred_notAcceptable() {
+        assertEquals(SMILE, preferred("*/*, application/json;q=0"));
+        assertNull(preferred("application/json;q=0, application/x-jackson-smile;q=0"));
+        assertNull(preferred("text/html"));
+        assertNull(preferred("not a media type"));
+    }
+}
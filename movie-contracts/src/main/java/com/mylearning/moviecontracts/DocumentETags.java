@@ -0,0 +1,50 @@
+package com.mylearning.moviecontracts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ETags from the Mongo document versions (@Version), no body has to be serialized or hashed to compute one.
+ * <p>
+ * The tags are weak : they name the documents' versions, not the bytes, and the same tag goes out whatever the format
+ * (JSON, Smile) or the content coding (gzip). A strong tag would claim byte equality across them. The responses carry
+ * Vary: Accept, Accept-Encoding so caches keep one entry per representation. Spring sets the ETag header and answers
+ * a matching If-None-Match with a 304 on its own (weak comparison), for ResponseEntity as well as for ServerResponse.
+ */
+public final class DocumentETags {
+
+    private DocumentETags() {
+    }
+
+    // one document : W/"<id>-<version>"
+    public static String of(String id, Long version) {
+        return "W/\"" + id + "-" + versionOf(version) + "\"";
+    }
+
+    // a list : W/"<size>-<digest of every id and version, in order>", adding, removing, reordering or updating any
+    // document of the list changes it
+    public static <T> String ofAll(List<T> documents, Function<T, String> id, Function<T, Long> version) {
+        MessageDigest digest = sha256();
+        for (T document : documents) {
+            digest.update((id.apply(document) + "-" + versionOf(version.apply(document)) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"" + documents.size() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 12) + "\"";
+    }
+
+    // documents written before they had a version, until the backfill gave them one
+    private static long versionOf(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is part of every JRE", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mylearning.moviecontracts;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A movie-info-service MovieInfo as the other services read and write it. Validation stays with movie-info-service,
+ * the owner of the document, a caller only carries what it was sent.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSerialize(using = MovieInfoSerializer.class)
+public record MovieInfo(String movieId,
+                        String name,
+                        Integer year,
+                        List<String> cast,
+                        LocalDate releaseDate,
+                        String description) {
+
+    public MovieInfo {
+        // copy : immutable, and the caller's list can change without changing this record (null names are kept)
+        cast = cast == null ? null : Collections.unmodifiableList(new ArrayList<>(cast));
+    }
+}
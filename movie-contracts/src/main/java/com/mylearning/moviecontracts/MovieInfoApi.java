@@ -0,0 +1,18 @@
+package com.mylearning.moviecontracts;
+
+/**
+ * Paths of movie-info-service that other services call.
+ */
+public final class MovieInfoApi {
+
+    // MovieInfoResponseEntityController, the status-aware variant movie-service calls
+    public static final String RESPONSE_ENTITY_BASE = "/api/v1/movies/response-entity";
+    public static final String GET_MOVIE_INFO = "/getMovieInfo";
+    public static final String ADD_MOVIE_INFO = "/addMovieInfos";
+
+    public static final String GET_MOVIE_INFO_URL = RESPONSE_ENTITY_BASE + GET_MOVIE_INFO;
+    public static final String ADD_MOVIE_INFO_URL = RESPONSE_ENTITY_BASE + ADD_MOVIE_INFO;
+
+    private MovieInfoApi() {
+    }
+}
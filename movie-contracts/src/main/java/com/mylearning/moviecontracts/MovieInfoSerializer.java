@@ -0,0 +1,57 @@
+package com.mylearning.moviecontracts;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link MovieInfo} field by field : no property introspection per type, and the field names are quoted and
+ * UTF-8 encoded once (SerializedString) instead of on every write. Same JSON as Jackson's default for the record
+ * with Spring Boot's settings : nulls included, releaseDate as an ISO-8601 string.
+ */
+public final class MovieInfoSerializer extends StdSerializer<MovieInfo> {
+
+    private static final SerializedString MOVIE_ID = new SerializedString("movieId");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString YEAR = new SerializedString("year");
+    private static final SerializedString CAST = new SerializedString("cast");
+    private static final SerializedString RELEASE_DATE = new SerializedString("releaseDate");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+
+    public MovieInfoSerializer() {
+        super(MovieInfo.class);
+    }
+
+    @Override
+    public void serialize(MovieInfo movieInfo, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(movieInfo);
+        generator.writeFieldName(MOVIE_ID);
+        generator.writeString(movieInfo.movieId());
+        generator.writeFieldName(NAME);
+        generator.writeString(movieInfo.name());
+        generator.writeFieldName(YEAR);
+        if (movieInfo.year() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(movieInfo.year());
+        }
+        generator.writeFieldName(CAST);
+        if (movieInfo.cast() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(movieInfo.cast(), movieInfo.cast().size());
+            for (String member : movieInfo.cast()) {
+                generator.writeString(member);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeFieldName(RELEASE_DATE);
+        generator.writeString(movieInfo.releaseDate() == null ? null : movieInfo.releaseDate().toString());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(movieInfo.description());
+        generator.writeEndObject();
+    }
+}
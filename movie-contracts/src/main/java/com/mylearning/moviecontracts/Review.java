@@ -0,0 +1,15 @@
+package com.mylearning.moviecontracts;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A movie-review-service Review as the other services read and write it. Validation stays with movie-review-service.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSerialize(using = ReviewSerializer.class)
+public record Review(String reviewId,
+                     Long movieInfoId,
+                     String comment,
+                     Double rating) {
+}
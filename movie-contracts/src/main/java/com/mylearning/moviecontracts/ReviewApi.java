@@ -0,0 +1,18 @@
+package com.mylearning.moviecontracts;
+
+/**
+ * Paths and headers of movie-review-service that other services call.
+ */
+public final class ReviewApi {
+
+    public static final String BASE = "/api/v1/review";
+    public static final String SEARCH = "/search";
+
+    public static final String SEARCH_URL = BASE + SEARCH;
+
+    // query parameter of SEARCH
+    public static final String MOVIE_INFO_ID = "movieInfoId";
+
+    private ReviewApi() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.mylearning.moviecontracts;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Review} field by field with pre-encoded field names, see {@link MovieInfoSerializer}.
+ */
+public final class ReviewSerializer extends StdSerializer<Review> {
+
+    private static final SerializedString REVIEW_ID = new SerializedString("reviewId");
+    private static final SerializedString MOVIE_INFO_ID = new SerializedString("movieInfoId");
+    private static final SerializedString COMMENT = new SerializedString("comment");
+    private static final SerializedString RATING = new SerializedString("rating");
+
+    public ReviewSerializer() {
+        super(Review.class);
+    }
+
+    @Override
+    public void serialize(Review review, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(review);
+        generator.writeFieldName(REVIEW_ID);
+        generator.writeString(review.reviewId());
+        generator.writeFieldName(MOVIE_INFO_ID);
+        if (review.movieInfoId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(review.movieInfoId());
+        }
+        generator.writeFieldName(COMMENT);
+        generator.writeString(review.comment());
+        generator.writeFieldName(RATING);
+        if (review.rating() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(review.rating());
+        }
+        generator.writeEndObject();
+    }
+}
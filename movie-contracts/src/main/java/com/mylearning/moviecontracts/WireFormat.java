@@ -0,0 +1,14 @@
+package com.mylearning.moviecontracts;
+
+/**
+ * Media types the movie services exchange besides JSON.
+ */
+public final class WireFormat {
+
+    // Smile, binary JSON : asked for first by movie-service, answered by movie-info-service and movie-review-service
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final String STREAM_SMILE = "application/stream+x-jackson-smile";
+
+    private WireFormat() {
+    }
+}
@@ -0,0 +1,74 @@
+package com.mylearning.moviecontracts;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContractSerializersTest {
+
+    // what Spring Boot configures : JavaTimeModule, dates as ISO strings
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // the same mapper ignoring @JsonSerialize => Jackson's own record serialization, the reference
+    private final ObjectMapper reference = objectMapper.copy().configure(MapperFeature.USE_ANNOTATIONS, false);
+
+    @Test
+    void movieInfo_sameJsonAsJacksonDefault() throws Exception {
+        var movieInfo = new MovieInfo("abc", "Batman \"Begins\"", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Gotham, ünïcode");
+        var withNulls = new MovieInfo(null, null, null, null, null, null);
+
+        for (MovieInfo value : List.of(movieInfo, withNulls)) {
+            assertThat(objectMapper.readTree(objectMapper.writeValueAsBytes(value)))
+                    .isEqualTo(reference.readTree(reference.writeValueAsBytes(value)));
+            assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(value), MovieInfo.class)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void review_sameJsonAsJacksonDefault() throws Exception {
+        var review = new Review("r1", 1L, "Awesome Movie", 9.5);
+        var withNulls = new Review(null, null, null, null);
+
+        for (Review value : List.of(review, withNulls)) {
+            assertThat(objectMapper.readTree(objectMapper.writeValueAsBytes(value)))
+                    .isEqualTo(reference.readTree(reference.writeValueAsBytes(value)));
+            assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(value), Review.class)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void unknownFields_areIgnored() throws Exception {
+        var json = """
+                {"movieId": "1", "name": "Batman Begins", "year": 2005, "cast": ["Christian Bale"],
+                 "releaseDate": "2005-06-15", "release_date": "2005-06-15", "rating": {"imdb": 8.2}}
+                """;
+
+        var movieInfo = objectMapper.readValue(json, MovieInfo.class);
+
+        assertThat(movieInfo.name()).isEqualTo("Batman Begins");
+        assertThat(movieInfo.releaseDate()).isEqualTo(LocalDate.parse("2005-06-15"));
+    }
+
+    @Test
+    void cast_isAnImmutableCopy() {
+        var cast = new ArrayList<>(Arrays.asList("Christian Bale", null));
+        var movieInfo = new MovieInfo("1", "Batman Begins", 2005, cast, null, null);
+        cast.add("Michael Cane");
+
+        assertThat(movieInfo.cast()).containsExactly("Christian Bale", null);
+        assertThatThrownBy(() -> movieInfo.cast().add("Liam Neeson")).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
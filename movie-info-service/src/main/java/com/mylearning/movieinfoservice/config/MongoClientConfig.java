@@ -0,0 +1,116 @@
+package com.mylearning.movieinfoservice.config;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mylearning.movieinfoservice.metrics.MongoPoolMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.util.ClassUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The reactive Mongo client tuned from mongo.client.* (MongoClientProperties) : pool, socket timeouts, read preference,
+// write concerns and wire compression, plus the pool metrics (MongoPoolMetrics).
+// Applied after Spring Boot's own customizer, the same options given in spring.data.mongodb.uri are overridden.
+// A wrong value (unknown read preference, write concern or compressor) fails the start, not the first query.
+@Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class MongoClientConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientTuningCustomizer(MongoClientProperties properties,
+                                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        var pool = properties.getPool();
+        var socket = properties.getSocket();
+        var readPreference = ReadPreference.valueOf(properties.getReadPreference());
+        var writeConcern = writeConcern(properties.getWriteConcern());
+        var compressors = compressors(properties.getCompressors());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return settings -> settings
+                .applyToConnectionPoolSettings(builder -> {
+                    builder.minSize(pool.getMinSize())
+                            .maxSize(pool.getMaxSize())
+                            .maxConnecting(pool.getMaxConnecting())
+                            .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                            .maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                            .maxConnectionLifeTime(pool.getMaxLifeTime().toMillis(), TimeUnit.MILLISECONDS);
+                    if (registry != null) {
+                        builder.addConnectionPoolListener(new MongoPoolMetrics(registry));
+                    }
+                })
+                .applyToSocketSettings(builder -> builder
+                        .connectTimeout((int) socket.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) socket.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .readPreference(readPreference)
+                .writeConcern(writeConcern)
+                .compressorList(compressors);
+    }
+
+    // on Spring Boot's own template (none when the Mongo auto-configuration is left out), static : a post processor is
+    // created before the other beans, the properties are only looked up once the template is
+    @Bean
+    public static BeanPostProcessor writeConcernResolverPostProcessor(ObjectProvider<MongoClientProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ReactiveMongoTemplate template) {
+                    template.setWriteConcernResolver(
+                            writeConcernResolver(properties.getObject().getWriteConcernByOperation()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // an operation without its own write concern gets the template's default, null => the client's (write-concern)
+    public static WriteConcernResolver writeConcernResolver(Map<MongoActionOperation, String> writeConcernByOperation) {
+        Map<MongoActionOperation, WriteConcern> resolved = new EnumMap<>(MongoActionOperation.class);
+        writeConcernByOperation.forEach((operation, name) -> resolved.put(operation, writeConcern(name)));
+        return action -> resolved.getOrDefault(action.getMongoActionOperation(), action.getDefaultWriteConcern());
+    }
+
+    private static WriteConcern writeConcern(String name) {
+        WriteConcern writeConcern = WriteConcern.valueOf(name);
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown Mongo write concern " + name
+                    + " (acknowledged, w1, w2, w3, majority, journaled, unacknowledged)");
+        }
+        return writeConcern;
+    }
+
+    // zstd and snappy compress in native code shipped with their own jars, zlib is in the JDK
+    public static List<MongoCompressor> compressors(List<String> names) {
+        return names.stream().map(name -> switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> {
+                requireOnClasspath("com.github.luben.zstd.Zstd", "zstd", "com.github.luben:zstd-jni");
+                yield MongoCompressor.createZstdCompressor();
+            }
+            case "snappy" -> {
+                requireOnClasspath("org.xerial.snappy.Snappy", "snappy", "org.xerial.snappy:snappy-java");
+                yield MongoCompressor.createSnappyCompressor();
+            }
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unknown Mongo compressor " + name + " (zstd, snappy, zlib)");
+        }).toList();
+    }
+
+    private static void requireOnClasspath(String className, String compressor, String artifact) {
+        if (!ClassUtils.isPresent(className, MongoClientConfig.class.getClassLoader())) {
+            throw new IllegalStateException("mongo.client.compressors has " + compressor + ", it needs " + artifact
+                    + " on the classpath");
+        }
+    }
+}
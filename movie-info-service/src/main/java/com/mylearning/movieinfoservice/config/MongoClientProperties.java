@@ -0,0 +1,58 @@
+package com.mylearning.movieinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// mongo.client.* : the tuning of the reactive Mongo client, applied by MongoClientConfig on top of
+// spring.data.mongodb.* (which stays the where : host, port, database, credentials).
+// The defaults are the driver's own, a service without the block runs as it did before.
+@Data
+@ConfigurationProperties(prefix = "mongo.client")
+public class MongoClientProperties {
+
+    private final Pool pool = new Pool();
+
+    private final Socket socket = new Socket();
+
+    // every read, for this service the catalog reads (the GETs of the movie infos) : secondaryPreferred takes them off the
+    // primary, they may then lag it by the replication delay. The reads of a read-modify-write stay on the primary
+    // whatever this says (@ReadPreference on MovieInfoRepository)
+    private String readPreference = "primary";
+
+    private String writeConcern = "acknowledged";
+
+    // per operation class (insert, insert-list, save, update, replace, remove, bulk), the others get write-concern
+    private Map<MongoActionOperation, String> writeConcernByOperation = new EnumMap<>(MongoActionOperation.class);
+
+    // tried in this order, the server picks the first one it also has : zstd, snappy, zlib. Empty => uncompressed
+    private List<String> compressors = new ArrayList<>();
+
+    @Data
+    public static class Pool {
+        // connections kept open per server even when idle, opened in the background
+        private int minSize = 0;
+        private int maxSize = 100;
+        // connections being opened at the same time per server, the rest of the requests wait for one of them
+        private int maxConnecting = 2;
+        // how long a request waits for a connection (the wait queue), then fails with MongoTimeoutException
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+        // idle longer than that => closed (down to min-size), 0 : never
+        private Duration maxIdleTime = Duration.ZERO;
+        // older than that => closed when checked in, 0 : never
+        private Duration maxLifeTime = Duration.ZERO;
+    }
+
+    @Data
+    public static class Socket {
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        // 0 : no timeout, a command waits for its answer as long as it takes
+        private Duration readTimeout = Duration.ZERO;
+    }
+}
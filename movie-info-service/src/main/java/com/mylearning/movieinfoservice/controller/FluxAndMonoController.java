@@ -1,6 +1,9 @@
 package com.mylearning.movieinfoservice.controller;
 
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,6 +16,12 @@ import java.time.Duration;
 @RequestMapping("/flux-and-mono")
 public class FluxAndMonoController {
 
+    private final StreamHeartbeats streamHeartbeats;
+
+    public FluxAndMonoController(StreamHeartbeats streamHeartbeats) {
+        this.streamHeartbeats = streamHeartbeats;
+    }
+
     @GetMapping("flux")
     public Flux<Integer> getFlux() {
         return Flux.range(1, 10).log();
@@ -39,10 +48,14 @@ public class FluxAndMonoController {
 
     // Flux.interval(Duration.ofSeconds(1)) creates an infinite stream of Long values, starting from 0, emitting every 1 second.
     // Each emitted value is the next number in sequence: 0, 1, 2, 3, ...
+    // every value is a plain data event, the heartbeats (StreamHeartbeats) are SSE comments in between
     @GetMapping(value = "/flux-with-interval-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Long> stream(){
-        return Flux.interval(Duration.ofSeconds(1))
-                .log();
+    public Flux<ServerSentEvent<Long>> stream(ServerHttpRequest request){
+        return streamHeartbeats.withHeartbeats("interval", request,
+                Flux.interval(Duration.ofSeconds(1))
+                        .log()
+                        .map(value -> ServerSentEvent.builder(value).build()),
+                StreamHeartbeats::sseHeartbeat);
     }
 
 }
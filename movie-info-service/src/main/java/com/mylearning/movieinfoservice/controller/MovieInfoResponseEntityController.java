@@ -1,34 +1,60 @@
 package com.mylearning.movieinfoservice.controller;
 
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
+import com.mylearning.moviecommons.tracing.SignalTracer;
+import com.mylearning.moviecontracts.DocumentETags;
+import com.mylearning.moviecontracts.MovieInfoApi;
 import com.mylearning.movieinfoservice.exception.MovieInfoException;
 import com.mylearning.movieinfoservice.exception.MovieInfoNotfoundException;
 import com.mylearning.movieinfoservice.model.MovieInfo;
 import com.mylearning.movieinfoservice.service.MovieInfoService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
+import java.util.List;
+
 @RestController
-@RequestMapping("/api/v1/movies/response-entity")
+@RequestMapping(MovieInfoApi.RESPONSE_ENTITY_BASE)
 @Slf4j
 public class MovieInfoResponseEntityController {
 
     private final MovieInfoService movieInfoService;
+    private final StreamDrain streamDrain;
+    private final StreamHeartbeats streamHeartbeats;
 
     //event streaming
     Sinks.Many<MovieInfo> movieInfoSink = Sinks.many().replay().latest();
 
-    public MovieInfoResponseEntityController(MovieInfoService movieInfoService) {
+    private final SignalTracer.Endpoint addTrace;
+    private final SignalTracer.Endpoint getAllTrace;
+    private final SignalTracer.Endpoint getByIdTrace;
+    private final SignalTracer.Endpoint updateTrace;
+    private final SignalTracer.Endpoint update2Trace;
+
+    public MovieInfoResponseEntityController(MovieInfoService movieInfoService, StreamDrain streamDrain,
+                                             StreamHeartbeats streamHeartbeats, SignalTracer signalTracer) {
         this.movieInfoService = movieInfoService;
+        this.streamDrain = streamDrain;
+        this.streamHeartbeats = streamHeartbeats;
+        this.addTrace = signalTracer.endpoint("MovieInfoResponseEntityController.addMovieInfo");
+        this.getAllTrace = signalTracer.endpoint("MovieInfoResponseEntityController.getMovieInfos");
+        this.getByIdTrace = signalTracer.endpoint("MovieInfoResponseEntityController.getMovieInfo");
+        this.updateTrace = signalTracer.endpoint("MovieInfoResponseEntityController.updateMovieInfo");
+        this.update2Trace = signalTracer.endpoint("MovieInfoResponseEntityController.updateMovieInfo2");
     }
 
-    @PostMapping("/addMovieInfos")
+    @PostMapping(MovieInfoApi.ADD_MOVIE_INFO)
     public Mono<ResponseEntity<MovieInfo>> addMovieInfo(@RequestBody @Valid MovieInfo movieInfo) {
         return movieInfoService
                 .addMovieInfo(movieInfo)
@@ -38,32 +64,59 @@ public class MovieInfoResponseEntityController {
                 .doOnSuccess(resp -> log.info("Returned {} products",
                         resp.getBody()))
                 .switchIfEmpty(Mono.error(new MovieInfoException("Unable to add movie")))
-                .log(); // keep for debugging if needed
+                .transform(addTrace::trace); // switch on with the tracing endpoint (JMX) when debugging
     }
 
     // SSE => Server Sent Events controller
     //@GetMapping(value = "/movieInfos/stream", produces = MediaType.APPLICATION_NDJSON_VALUE) // for the other microservices
     @GetMapping(value = "/movieInfos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE) // for the browser or postman
-    public Flux<MovieInfo> streamMovieInfos() {
-        return movieInfoSink.asFlux();
+    // every MovieInfo is a plain data event as before, the wrapper only makes room for the heartbeat comments
+    // (StreamHeartbeats) and the terminal event of the drain; a pod shutting down refuses new subscribers, they retry
+    // elsewhere
+    public ResponseEntity<Flux<ServerSentEvent<MovieInfo>>> streamMovieInfos(ServerHttpRequest request) {
+        if (streamDrain.isDraining()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(streamDrain.retryAfterSeconds()))
+                    .build();
+        }
+        return ResponseEntity.ok(streamDrain.drainable(
+                streamHeartbeats.withHeartbeats("movie-infos", request,
+                        movieInfoSink.asFlux().map(movieInfo -> ServerSentEvent.builder(movieInfo).build()),
+                        StreamHeartbeats::sseHeartbeat),
+                StreamDrain::drainEvent));
+    }
+
+    // for the movieinfo.stream.subscribers gauge
+    public int streamSubscriberCount() {
+        return movieInfoSink.currentSubscriberCount();
     }
 
+    // one list with one ETag (a Flux of ResponseEntity was written as a JSON array of status/headers/body wrappers),
+    // If-None-Match with the ETag of the current list => 304 without a body
     @GetMapping("/getMovieInfos")
-    public Flux<ResponseEntity<MovieInfo>> getMovieInfos() {
+    public Mono<ResponseEntity<List<MovieInfo>>> getMovieInfos() {
         return movieInfoService.getMovieInfos()
-                .map(movieInfo -> ResponseEntity.ok().body(movieInfo))
+                .collectList()
+                .filter(movieInfos -> !movieInfos.isEmpty())
+                .map(movieInfos -> ResponseEntity.ok()
+                        .eTag(DocumentETags.ofAll(movieInfos, MovieInfo::getMovieId, MovieInfo::getVersion))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING) // JSON or Smile, gzip or not : same tag
+                        .body(movieInfos))
                 .switchIfEmpty(Mono.error(new MovieInfoNotfoundException("Not found"))) //   This exception will propagate to your Global Exception Handler
-                .doOnComplete(() -> log.info("All movie infos fetched successfully."))
-                .log();
+                .doOnSuccess(resp -> log.info("All movie infos fetched successfully."))
+                .transform(getAllTrace::trace);
     }
 
-    @GetMapping("/getMovieInfo/{movieId}")
+    @GetMapping(MovieInfoApi.GET_MOVIE_INFO + "/{movieId}")
     public Mono<ResponseEntity<MovieInfo>> getMovieInfo(@PathVariable String movieId) {
         return movieInfoService.getMovieInfo(movieId)
-                .map(movieInfo -> ResponseEntity.ok().body(movieInfo))
+                .map(movieInfo -> ResponseEntity.ok()
+                        .eTag(DocumentETags.of(movieInfo.getMovieId(), movieInfo.getVersion()))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .body(movieInfo))
                 .switchIfEmpty(Mono.error(new MovieInfoNotfoundException("Not found")))
                 .doOnSuccess(resp -> log.info(" Returned {} products", resp.getBody()))
-                .log();
+                .transform(getByIdTrace::trace);
     }
 
     @DeleteMapping("/deleteMovieInfo/{movieId}")
@@ -81,7 +134,7 @@ public class MovieInfoResponseEntityController {
                 .map(savedMovieInfo -> ResponseEntity.ok().body(savedMovieInfo))
                 .switchIfEmpty(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()))
                 .doOnSuccess(resp -> log.info("Updated the {} product", resp.getBody()))
-                .log();
+                .transform(updateTrace::trace);
     }
 
     @PutMapping("/updateMovieInfo2")
@@ -95,7 +148,7 @@ public class MovieInfoResponseEntityController {
                     log.warn("MovieInfo with ID {} not found for update", movieInfo.getMovieId());
                     return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
                 }))
-                .log(); // Optional for debugging
+                .transform(update2Trace::trace); // Optional for debugging
     }
 
 }
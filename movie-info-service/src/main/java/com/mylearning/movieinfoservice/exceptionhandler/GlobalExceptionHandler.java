@@ -2,6 +2,8 @@ package com.mylearning.movieinfoservice.exceptionhandler;
 
 import com.mylearning.movieinfoservice.exception.MovieInfoNotfoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,6 +59,21 @@ public class GlobalExceptionHandler {
     }
 
 
+    // two updates of the same MovieInfo raced, the @Version of the loser was stale
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent update : {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The movie info was updated concurrently, retry");
+    }
+
+    // a create with the movieId of an existing movie info : with the @Version, save() of a MovieInfo without a version
+    // inserts instead of overwriting the document
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<String> handleDuplicateKey(DuplicateKeyException ex) {
+        log.warn("Duplicate key : {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("A movie info with this movieId already exists");
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception ex) {
         Map<String, Object> map = new HashMap<>();
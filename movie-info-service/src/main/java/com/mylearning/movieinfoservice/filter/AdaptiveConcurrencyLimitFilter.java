@@ -0,0 +1,167 @@
+package com.mylearning.movieinfoservice.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Gradient concurrency limiter (the TCP Vegas idea, as in Netflix concurrency-limits "Gradient2") for the movie info
+// endpoints. Instead of a fixed pool size it keeps two moving averages of the request latency:
+//  - longRtt  : slow average, what "healthy" looks like
+//  - shortRtt : fast average, what is happening right now
+// gradient = longRtt / shortRtt, clamped to [0.5, 1]. When Mongo slows down shortRtt grows, the gradient drops below 1
+// and the limit shrinks, so the extra requests get a 503 straight away instead of queueing behind the slow ones.
+// When latency is flat the limit grows by sqrt(limit) per sample, probing for more throughput.
+// The SSE streams are not limited: they are open for minutes and would hold a permit and poison the latency average.
+// Only successful responses are samples : a fast 404 or a 500 thrown before Mongo is reached would pull the
+// latency averages down and let the limit grow while the service struggles.
+// The averages and the limit are one immutable Estimate swapped with a CAS, no lock on the request path.
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimitFilter implements WebFilter {
+
+    private static final String LIMITED_PATH = "/api/v1/movies";
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicReference<Estimate> estimate;
+
+    // longRtt == 0 : no sample yet
+    private record Estimate(double limit, double longRtt, double shortRtt) {
+    }
+
+    @Autowired
+    public AdaptiveConcurrencyLimitFilter(@Value("${movie-info.concurrency-limit.enabled:true}") boolean enabled,
+                                          @Value("${movie-info.concurrency-limit.initial:20}") int initialLimit,
+                                          @Value("${movie-info.concurrency-limit.min:4}") int minLimit,
+                                          @Value("${movie-info.concurrency-limit.max:200}") int maxLimit,
+                                          @Value("${movie-info.concurrency-limit.smoothing:0.2}") double smoothing,
+                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this(enabled, initialLimit, minLimit, maxLimit, smoothing, System::nanoTime);
+        meterRegistry.ifAvailable(this::bindTo);
+    }
+
+    public AdaptiveConcurrencyLimitFilter(boolean enabled, int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                          LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.estimate = new AtomicReference<>(new Estimate(initialLimit, 0, 0));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!enabled || !path.startsWith(LIMITED_PATH) || path.endsWith("/stream")) {
+            return chain.filter(exchange);
+        }
+        int inFlightAtStart = tryAcquire();
+        if (inFlightAtStart < 0) {
+            rejected.increment();
+            log.debug("Shedding {} : {} requests in flight, limit {}", path, inFlight.get(), getLimit());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        long start = nanoClock.getAsLong();
+        return chain.filter(exchange)
+                .doFinally(signal -> release(start, inFlightAtStart, isSample(signal, exchange.getResponse().getStatusCode())));
+    }
+
+    // the requests in flight once this one is admitted, -1 when it is shed
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    // a cancelled or failed request says nothing about how fast we are, the permit is just given back
+    public void release(long startNanos, int inFlightAtStart, boolean sample) {
+        inFlight.decrementAndGet();
+        if (sample) {
+            long rttNanos = nanoClock.getAsLong() - startNanos;
+            estimate.updateAndGet(current -> next(current, rttNanos, inFlightAtStart));
+        }
+    }
+
+    private static boolean isSample(SignalType signal, HttpStatusCode status) {
+        return signal == SignalType.ON_COMPLETE && (status == null || !status.isError());
+    }
+
+    private Estimate next(Estimate current, long rttNanos, int inFlightAtStart) {
+        if (current.longRtt() == 0) {
+            return new Estimate(current.limit(), rttNanos, rttNanos);
+        }
+        double shortRtt = current.shortRtt() * 0.9 + rttNanos * 0.1;
+        double longRtt = current.longRtt() * 0.99 + rttNanos * 0.01;
+        // the long term average drifts after a sustained slow down, pull it towards the current one so we recover
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        double limit = current.limit();
+        // app limited => there was room left, the latency says nothing about a higher limit
+        if (inFlightAtStart < limit / 2) {
+            return new Estimate(limit, longRtt, shortRtt);
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        return new Estimate(Math.max(minLimit, Math.min(maxLimit, newLimit)), longRtt, shortRtt);
+    }
+
+    public int getLimit() {
+        return (int) estimate.get().limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        Gauge.builder("movieinfo.concurrency.limit", this, AdaptiveConcurrencyLimitFilter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("movieinfo.concurrency.inflight", this, AdaptiveConcurrencyLimitFilter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+        FunctionCounter.builder("movieinfo.concurrency.rejected", this, AdaptiveConcurrencyLimitFilter::getRejected)
+                .description("Requests shed with 503 since startup")
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mylearning.movieinfoservice.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Pool metrics from the driver's connection pool events, next to the gauges Spring Boot already registers
+// (mongodb.driver.pool.size / checkedout / waitqueuesize / checkoutfailed) :
+//   movieinfo.mongo.pool.checkout : how long a command waited for a connection, outcome success or the failure reason.
+//                                   Long waits with checkedout at max-size => the pool is too small
+//   movieinfo.mongo.pool.closed   : connections closed, per reason. Many idle ones => min-size / max-idle-time churn
+// The listener runs on the driver's threads on every checkout : the meters are built once per server and outcome / reason
+// and kept, an event is a map lookup, not a builder, tag formatting and registry lookup.
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Timer> checkoutTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> closedCounters = new ConcurrentHashMap<>();
+
+    public MongoPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkoutTimer(event.getConnectionId().getServerId(), null)
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkoutTimer(event.getServerId(), event.getReason())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        closedCounters.computeIfAbsent(new MeterKey(event.getConnectionId().getServerId(), event.getReason()),
+                key -> Counter.builder("movieinfo.mongo.pool.closed")
+                        .tag("server.address", address(key.serverId()))
+                        .tag("reason", tagValue(key.reason()))
+                        .description("Pooled Mongo connections closed")
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    // a null reason is a successful checkout
+    private Timer checkoutTimer(ServerId serverId, Enum<?> reason) {
+        return checkoutTimers.computeIfAbsent(new MeterKey(serverId, reason),
+                key -> Timer.builder("movieinfo.mongo.pool.checkout")
+                        .tag("server.address", address(key.serverId()))
+                        .tag("outcome", key.reason() == null ? "success" : tagValue(key.reason()))
+                        .description("Wait for a pooled Mongo connection")
+                        .register(meterRegistry));
+    }
+
+    private static String address(ServerId serverId) {
+        return serverId.getAddress().toString();
+    }
+
+    private static String tagValue(Enum<?> reason) {
+        return reason.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private record MeterKey(ServerId serverId, Enum<?> reason) {
+    }
+}
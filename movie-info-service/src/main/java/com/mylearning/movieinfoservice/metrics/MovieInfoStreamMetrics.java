@@ -0,0 +1,28 @@
+package com.mylearning.movieinfoservice.metrics;
+
+import com.mylearning.movieinfoservice.controller.MovieInfoResponseEntityController;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Gauge for the movie info SSE sink, read when Prometheus scrapes.
+// The request and Mongo timings come from Spring Boot itself (http.server.requests, mongodb.driver.commands),
+// the concurrency limit gauges are registered by AdaptiveConcurrencyLimitFilter.
+@Component
+public class MovieInfoStreamMetrics implements MeterBinder {
+
+    private final MovieInfoResponseEntityController movieInfoResponseEntityController;
+
+    public MovieInfoStreamMetrics(MovieInfoResponseEntityController movieInfoResponseEntityController) {
+        this.movieInfoResponseEntityController = movieInfoResponseEntityController;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movieinfo.stream.subscribers", movieInfoResponseEntityController,
+                        MovieInfoResponseEntityController::streamSubscriberCount)
+                .description("Subscribers of /api/v1/movies/response-entity/movieInfos/stream")
+                .register(registry);
+    }
+}
@@ -1,5 +1,7 @@
 package com.mylearning.movieinfoservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mylearning.movieinfoservice.validator.MovieInfoValidator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -7,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -21,21 +24,29 @@ public class MovieInfo {
     @Id
     private String movieId; // we don't need to manually configure auto-generation of IDs for documents.
 
-    @NotBlank(message = "movieInfo.name should be not be blank") // "" , " " amd null are not valid
+    @NotBlank(message = MovieInfoValidator.NAME_BLANK) // "" , " " amd null are not valid
     private String name;
 
     @NotNull // null is not valid but "" and " " are valid
-    @Positive(message = "movieInfo.year should be positive")
+    @Positive(message = MovieInfoValidator.YEAR_NOT_POSITIVE)
     private Integer year;
 
     @NotNull
-    private List<@NotBlank(message = "movieInfo.cast should not be blank") String> cast;
+    private List<@NotBlank(message = MovieInfoValidator.CAST_BLANK) String> cast;
 
 
-    @NotNull(message = "movieInfo.releaseDate must not be null")
+    @NotNull(message = MovieInfoValidator.RELEASE_DATE_NULL)
     private LocalDate releaseDate;
     private String description;
 
+    // bumped by Spring Data on every save and the source of the ETags (DocumentETags), never part of the JSON
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    public MovieInfo(String movieId, String name, Integer year, List<String> cast, LocalDate releaseDate, String description) {
+        this(movieId, name, year, cast, releaseDate, description, null);
+    }
 }
 
 // note  @NotEmpty // "" and null are not valid but " " is valid
@@ -2,6 +2,7 @@ package com.mylearning.movieinfoservice.repository;
 
 import com.mylearning.movieinfoservice.model.MovieInfo;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -12,4 +13,13 @@ public interface MovieInfoRepository extends ReactiveMongoRepository<MovieInfo,
     Flux<MovieInfo> findByYear(Integer year);
 
     Mono<MovieInfo> findByName(String name);
+
+    // the reads of a read-modify-write (delete, update) : on the primary whatever mongo.client.read-preference says,
+    // a secondary may not have the document that was just written yet
+    @Override
+    @ReadPreference("primary")
+    Mono<Boolean> existsById(String movieId);
+
+    @ReadPreference("primary")
+    Mono<MovieInfo> findForUpdateByMovieId(String movieId);
 }
@@ -1,36 +1,63 @@
 package com.mylearning.movieinfoservice.service;
 
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviecommons.tracing.SignalTracer;
 import com.mylearning.movieinfoservice.exception.MovieInfoNotfoundException;
 import com.mylearning.movieinfoservice.model.MovieInfo;
 import com.mylearning.movieinfoservice.repository.MovieInfoRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 @Service
 @Slf4j
 public class MovieInfoServiceImpl implements MovieInfoService {
 
     private final MovieInfoRepository movieInfoRepository;
 
-    public MovieInfoServiceImpl(MovieInfoRepository movieInfoRepository) {
+    // the hooks may block, they only ever run on the blocking scheduler (see MovieInfoWriteHook)
+    private final List<MovieInfoWriteHook> writeHooks;
+    private final BlockingScheduler blockingScheduler;
+
+    // these chains used to end with .log(), they are now traced only when switched on (see SignalTracer)
+    private final SignalTracer.Endpoint addTrace;
+    private final SignalTracer.Endpoint findAllTrace;
+    private final SignalTracer.Endpoint findByIdTrace;
+    private final SignalTracer.Endpoint deleteTrace;
+    private final SignalTracer.Endpoint updateTrace;
+
+    public MovieInfoServiceImpl(MovieInfoRepository movieInfoRepository, SignalTracer signalTracer,
+                                ObjectProvider<MovieInfoWriteHook> writeHooks, BlockingScheduler blockingScheduler) {
         this.movieInfoRepository = movieInfoRepository;
+        this.writeHooks = writeHooks.orderedStream().toList();
+        this.blockingScheduler = blockingScheduler;
+        this.addTrace = signalTracer.endpoint("MovieInfoService.addMovieInfo");
+        this.findAllTrace = signalTracer.endpoint("MovieInfoService.getMovieInfos");
+        this.findByIdTrace = signalTracer.endpoint("MovieInfoService.getMovieInfo");
+        this.deleteTrace = signalTracer.endpoint("MovieInfoService.deleteMovieInfo");
+        this.updateTrace = signalTracer.endpoint("MovieInfoService.updateMovieInfo");
     }
 
     @Override
     public Mono<MovieInfo> addMovieInfo(MovieInfo movieInfo) {
-        return movieInfoRepository.save(movieInfo).log();
+        return movieInfoRepository.save(movieInfo)
+                .flatMap(savedMovieInfo -> afterWrite(hook -> hook.saved(savedMovieInfo)).thenReturn(savedMovieInfo))
+                .transform(addTrace::trace);
     }
 
     @Override
     public Flux<MovieInfo> getMovieInfos() {
-        return movieInfoRepository.findAll().log();
+        return movieInfoRepository.findAll().transform(findAllTrace::trace);
     }
 
     @Override
     public Mono<MovieInfo> getMovieInfo(String movieId) {
-        return movieInfoRepository.findById(movieId).log();
+        return movieInfoRepository.findById(movieId).transform(findByIdTrace::trace);
     }
 
     @Override
@@ -40,14 +67,16 @@ public class MovieInfoServiceImpl implements MovieInfoService {
                     if (!exists) {
                         return Mono.error(new MovieInfoNotfoundException("Movie not found with id: " + movieId));
                     }
-                    return movieInfoRepository.deleteById(movieId).log();
-                });
+                    return movieInfoRepository.deleteById(movieId)
+                            .then(afterWrite(hook -> hook.deleted(movieId)));
+                })
+                .transform(deleteTrace::trace);
     }
 
     @Override
     public Mono<MovieInfo> updateMovieInfo(MovieInfo movieInfo) {
 
-        return movieInfoRepository.findById(movieInfo.getMovieId())
+        return movieInfoRepository.findForUpdateByMovieId(movieInfo.getMovieId())
                 .flatMap(existingMovieInfo -> {
                     existingMovieInfo.setName(movieInfo.getName());
                     existingMovieInfo.setDescription(movieInfo.getDescription());
@@ -56,7 +85,16 @@ public class MovieInfoServiceImpl implements MovieInfoService {
                     existingMovieInfo.setCast(movieInfo.getCast());
                     return movieInfoRepository.save(existingMovieInfo);
                 })
+                .flatMap(savedMovieInfo -> afterWrite(hook -> hook.saved(savedMovieInfo)).thenReturn(savedMovieInfo))
                 .switchIfEmpty(Mono.empty())
-                .log();
+                .transform(updateTrace::trace);
+    }
+
+    // without hooks (the default) the write does not leave the thread it completed on
+    private Mono<Void> afterWrite(Consumer<MovieInfoWriteHook> call) {
+        if (writeHooks.isEmpty()) {
+            return Mono.empty();
+        }
+        return blockingScheduler.run(() -> writeHooks.forEach(call));
     }
 }
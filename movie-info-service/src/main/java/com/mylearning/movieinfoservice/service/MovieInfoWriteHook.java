@@ -0,0 +1,13 @@
+package com.mylearning.movieinfoservice.service;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+
+// For deployments that have to copy catalogue writes into a blocking system (a JDBC table, a legacy SDK).
+// Every MovieInfoWriteHook bean is called by MovieInfoServiceImpl once Mongo acknowledged the write, always on the
+// BlockingScheduler, so an implementation may block. A hook that throws fails the request, the Mongo write stays.
+public interface MovieInfoWriteHook {
+
+    void saved(MovieInfo movieInfo);
+
+    void deleted(String movieId);
+}
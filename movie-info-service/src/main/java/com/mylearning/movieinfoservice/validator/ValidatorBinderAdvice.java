@@ -0,0 +1,21 @@
+package com.mylearning.movieinfoservice.validator;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+// Swaps the Bean Validation validator for the hand written MovieInfoValidator on every @Valid MovieInfo,
+// in all controllers. Other binders (path variables, ...) keep the default validator.
+@ControllerAdvice
+public class ValidatorBinderAdvice {
+
+    private static final MovieInfoValidator MOVIE_INFO_VALIDATOR = new MovieInfoValidator();
+
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        if (binder.getTarget() instanceof MovieInfo) {
+            binder.setValidator(MOVIE_INFO_VALIDATOR);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mylearning.movieinfoservice.warmup;
+
+import com.mylearning.moviecommons.warmup.WarmUpDriver;
+import com.mylearning.moviecommons.warmup.WarmUpReport;
+import com.mylearning.moviecontracts.MovieInfoApi;
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.validator.MovieInfoValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+
+// Opt-in JIT warm-up (warmup.enabled) : right after a deploy the controllers, codecs and the Mongo driver run
+// interpreted, the first thousands of real requests pay for it in p99. This runs warmup.iterations rounds of synthetic
+// traffic first, while the readiness probe still says REFUSING_TRAFFIC : Spring Boot only publishes ACCEPTING_TRAFFIC
+// once the ApplicationReadyEvent listeners returned, and this one blocks until the budget (or max-duration) is spent.
+// Every round (WarmUpDriver) :
+//  - when warmup.movie-info-id names a movie info that exists, both controllers' getMovieInfo for it in JSON and Smile :
+//    routing, the repository lookup against Mongo and the found document's encoding, the path real traffic takes.
+//    Read only. Unset, nothing reaches Mongo : an unknown id would only warm the 404 path.
+//  - MovieInfoValidator on an invalid MovieInfo, in process : a 400 through GlobalExceptionHandler logs a stack trace
+//  - the server's own JSON / Smile codecs encoding and decoding a synthetic MovieInfo and List<MovieInfo>
+// The requests carry X-Warm-Up, StartupTimingReport leaves them out. The p99 of the first and last tenth of the
+// requests is logged, the difference is what the real traffic does not pay anymore.
+@Component
+@Slf4j
+public class WarmUpRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final MovieInfoValidator MOVIE_INFO_VALIDATOR = new MovieInfoValidator();
+
+    private static final MovieInfo INVALID = new MovieInfo(null, "", -2005, List.of(""), LocalDate.parse("2005-06-15"), "warm-up");
+
+    private final boolean enabled;
+    private final String movieInfoId;
+    private final WebClient.Builder webClientBuilder;
+    private final WarmUpDriver warmUpDriver;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(@Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:2000}") int iterations,
+                        @Value("${warmup.concurrency:4}") int concurrency,
+                        @Value("${warmup.max-duration:60s}") Duration maxDuration,
+                        @Value("${warmup.movie-info-id:}") String movieInfoId,
+                        WebClient.Builder webClientBuilder,
+                        ServerCodecConfigurer serverCodecConfigurer) {
+        this.enabled = enabled;
+        this.movieInfoId = movieInfoId;
+        this.webClientBuilder = webClientBuilder;
+        this.warmUpDriver = new WarmUpDriver(iterations, concurrency, maxDuration, serverCodecConfigurer);
+    }
+
+    // null until a warm-up ran
+    public WarmUpReport report() {
+        return report;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        WebClient webClient = WarmUpDriver.localWebClient(webClientBuilder, context);
+        List<IntFunction<Mono<?>>> calls = new ArrayList<>();
+        if (!movieInfoId.isBlank()) {
+            calls.add(i -> WarmUpDriver.get(webClient, MediaType.APPLICATION_JSON, MovieInfoApi.GET_MOVIE_INFO_URL + "/{movieId}", movieInfoId));
+            calls.add(i -> WarmUpDriver.get(webClient, SMILE, MovieInfoApi.GET_MOVIE_INFO_URL + "/{movieId}", movieInfoId));
+            calls.add(i -> WarmUpDriver.get(webClient, MediaType.APPLICATION_JSON, "/api/v1/movies/getMovieInfo/{movieId}", movieInfoId));
+        }
+        calls.add(i -> Mono.fromRunnable(() -> MOVIE_INFO_VALIDATOR.validate(INVALID, new BeanPropertyBindingResult(INVALID, "movieInfo"))));
+        calls.add(i -> warmUpDriver.codecs(ResolvableType.forClass(MovieInfo.class), movieInfo(i)));
+        calls.add(i -> warmUpDriver.codecs(ResolvableType.forClassWithGenerics(List.class, MovieInfo.class), List.of(movieInfo(i), movieInfo(i + 1))));
+        report = warmUpDriver.run(calls);
+        log.info("Warm-up : {}", report);
+    }
+
+    private static MovieInfo movieInfo(int i) {
+        return new MovieInfo("warm-up-" + i, "Batman Begins " + i, 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+    }
+}
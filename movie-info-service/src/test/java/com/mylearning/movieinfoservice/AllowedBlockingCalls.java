@@ -0,0 +1,15 @@
+package com.mylearning.movieinfoservice;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+// Blocking calls BlockHound may see on an event loop without it being a bug, registered through
+// META-INF/services so blockhound-junit-platform picks it up with Reactor's own integrations.
+public class AllowedBlockingCalls implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        // Jackson builds a deserializer once per type under a ReentrantLock, concurrent first requests wait for each other
+        builder.allowBlockingCallsInside("com.fasterxml.jackson.databind.deser.DeserializerCache", "_createAndCacheValueDeserializer");
+    }
+}
@@ -0,0 +1,88 @@
+package com.mylearning.movieinfoservice.benchmark;
+
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// What offloading a call onto BlockingScheduler costs against keeping it on the event loop, 64 calls in flight
+// like 64 concurrent requests. latencyMicros is the time the call waits for its backend :
+//   event-loop      : a non-blocking driver, the wait is a timer and no thread is held (Mono.delay)
+//   bounded-elastic : a blocking driver on BlockingScheduler, every wait holds one of its platform threads
+//   auto            : the same on virtual threads when the JVM has them (Java 21+), bounded elastic otherwise
+// latencyMicros=0 is the bare cost of the hop to the scheduler and back.
+// mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-cp %classpath org.openjdk.jmh.Main BlockingOffloadBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingOffloadBenchmark {
+
+    private static final int IN_FLIGHT = 64;
+
+    @Param({"event-loop", "bounded-elastic", "auto"})
+    public String mode;
+
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    private BlockingScheduler blockingScheduler;
+
+    @Setup
+    public void setUp() {
+        if (!mode.equals("event-loop")) {
+            blockingScheduler = new BlockingScheduler(mode, 0, 0);
+            System.out.printf("%n%s runs on %s%n", mode, blockingScheduler.isVirtual() ? "virtual threads" : "bounded elastic");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (blockingScheduler != null) {
+            blockingScheduler.destroy();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public Long calls() {
+        return Flux.range(0, IN_FLIGHT)
+                .publishOn(Schedulers.parallel()) // the requests arrive on a non-blocking thread
+                .flatMap(i -> blockingScheduler == null ? nonBlockingCall(i) : blockingScheduler.call(() -> blockingCall(i)), IN_FLIGHT)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    private Mono<Long> nonBlockingCall(long i) {
+        return latencyMicros == 0
+                ? Mono.just(i)
+                : Mono.delay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros))).thenReturn(i);
+    }
+
+    private long blockingCall(long i) {
+        if (latencyMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        }
+        return i;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mylearning.movieinfoservice.benchmark;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.validator.MovieInfoValidator;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What @Valid MovieInfo costs per request: Spring's Bean Validation adapter (the default before MovieInfoValidator)
+// vs the hand written MovieInfoValidator, both writing into the BindingResult the WebDataBinder creates.
+// mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-cp %classpath org.openjdk.jmh.Main MovieInfoValidationBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieInfoValidationBenchmark {
+
+    private SpringValidatorAdapter beanValidator;
+    private MovieInfoValidator movieInfoValidator;
+    private MovieInfo valid;
+    private MovieInfo invalid;
+
+    @Setup
+    public void setUp() {
+        beanValidator = new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator());
+        movieInfoValidator = new MovieInfoValidator();
+        valid = new MovieInfo(null, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"), "Batman Begins");
+        invalid = new MovieInfo(null, "", -2014, List.of(""), LocalDate.parse("2005-06-15"), "Batman Begins");
+    }
+
+    @Benchmark
+    public Errors beanValidation_valid() {
+        return validate(beanValidator, valid);
+    }
+
+    @Benchmark
+    public Errors beanValidation_invalid() {
+        return validate(beanValidator, invalid);
+    }
+
+    @Benchmark
+    public Errors movieInfoValidator_valid() {
+        return validate(movieInfoValidator, valid);
+    }
+
+    @Benchmark
+    public Errors movieInfoValidator_invalid() {
+        return validate(movieInfoValidator, invalid);
+    }
+
+    private static Errors validate(org.springframework.validation.Validator validator, MovieInfo movieInfo) {
+        var errors = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+        validator.validate(movieInfo, errors);
+        return errors;
+    }
+}
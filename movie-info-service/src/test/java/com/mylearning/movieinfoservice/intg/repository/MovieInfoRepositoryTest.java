@@ -1,18 +1,23 @@
 package com.mylearning.movieinfoservice.intg.repository;
 
+import com.mylearning.moviecommons.mongo.MongoVersionBackfill;
 import com.mylearning.movieinfoservice.model.MovieInfo;
 import com.mylearning.movieinfoservice.repository.MovieInfoRepository;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,6 +40,9 @@ public class MovieInfoRepositoryTest {
     @Autowired
     private MovieInfoRepository movieInfoRepository;
 
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
     //set up dummy/test data to the database
     @BeforeEach
     void setUp() {
@@ -216,6 +224,17 @@ public class MovieInfoRepositoryTest {
 
     }
 
+    @Test
+    void findForUpdateByMovieId() {
+        //when
+        var movieInfo = movieInfoRepository.findForUpdateByMovieId("abc123");
+
+        //then
+        StepVerifier.create(movieInfo)
+                .expectNextMatches(info -> info.getName().equals("Interstellar"))
+                .verifyComplete();
+    }
+
     @Test
     void saveMovieInfo() {
 
@@ -270,6 +289,36 @@ public class MovieInfoRepositoryTest {
 
     }
 
+    // written before MovieInfo had a @Version : without the backfill save() takes it for a new document, inserts it
+    // again and fails on the duplicate _id
+    @Test
+    void updateMovieInfo_writtenWithoutVersion() {
+
+        //given
+        reactiveMongoTemplate.insert(new Document(Map.of(
+                "_id", "legacy1",
+                "name", "The Martian",
+                "year", 2015,
+                "cast", List.of("Matt Damon"),
+                "releaseDate", LocalDate.of(2015, 10, 2))), "movieInfo").block();
+        new MongoVersionBackfill(reactiveMongoTemplate, Duration.ofSeconds(5)).backfill().block();
+
+        //when
+        var movieInfo = movieInfoRepository.findById("legacy1").block();
+        assertNotNull(movieInfo);
+        assertEquals(0L, movieInfo.getVersion());
+        movieInfo.setYear(2020);
+        var updatedMovieInfo = movieInfoRepository.save(movieInfo);
+
+        //then
+        StepVerifier.create(updatedMovieInfo)
+                .assertNext(info -> {
+                    assertEquals(2020, info.getYear());
+                    assertEquals(1L, info.getVersion());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void deleteMovieInfo() {
 
@@ -0,0 +1,124 @@
+package com.mylearning.movieinfoservice.unit.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mylearning.movieinfoservice.config.MongoClientConfig;
+import com.mylearning.movieinfoservice.config.MongoClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MongoClientConfigTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void mongoClientTuningCustomizer_propertiesAppliedToTheClientSettings() {
+        var properties = bind(Map.of(
+                "mongo.client.pool.min-size", "10",
+                "mongo.client.pool.max-size", "50",
+                "mongo.client.pool.max-wait-time", "2s",
+                "mongo.client.pool.max-idle-time", "5m",
+                "mongo.client.socket.read-timeout", "15s",
+                "mongo.client.read-preference", "secondaryPreferred",
+                "mongo.client.write-concern", "majority",
+                "mongo.client.compressors", "zstd,zlib"));
+
+        var settings = settings(properties);
+
+        var pool = settings.getConnectionPoolSettings();
+        assertEquals(10, pool.getMinSize());
+        assertEquals(50, pool.getMaxSize());
+        assertEquals(2, pool.getMaxConnecting()); // not set => the driver's default
+        assertEquals(2_000, pool.getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(300_000, pool.getMaxConnectionIdleTime(TimeUnit.MILLISECONDS));
+        assertEquals(10_000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(15_000, settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(ReadPreference.secondaryPreferred(), settings.getReadPreference());
+        assertEquals(WriteConcern.MAJORITY, settings.getWriteConcern());
+        assertEquals(List.of("zstd", "zlib"),
+                settings.getCompressorList().stream().map(MongoCompressor::getName).toList());
+    }
+
+    @Test
+    void writeConcernResolver_perOperationClass_othersOnTheDefault() {
+        var properties = bind(Map.of("mongo.client.write-concern-by-operation.insert-list", "w1",
+                "mongo.client.write-concern-by-operation.remove", "majority"));
+
+        WriteConcernResolver resolver = MongoClientConfig.writeConcernResolver(properties.getWriteConcernByOperation());
+
+        assertEquals(WriteConcern.W1, resolver.resolve(action(MongoActionOperation.INSERT_LIST)));
+        assertEquals(WriteConcern.MAJORITY, resolver.resolve(action(MongoActionOperation.REMOVE)));
+        assertEquals(WriteConcern.ACKNOWLEDGED, resolver.resolve(action(MongoActionOperation.SAVE)));
+    }
+
+    @Test
+    void unknownValues_rejectedAtStartup() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MongoClientConfig.writeConcernResolver(Map.of(MongoActionOperation.SAVE, "most")));
+        assertThrows(IllegalArgumentException.class, () -> MongoClientConfig.compressors(List.of("lz4")));
+        // snappy-java is not shipped with the service
+        assertThrows(IllegalStateException.class, () -> MongoClientConfig.compressors(List.of("snappy")));
+        assertThrows(IllegalArgumentException.class,
+                () -> settings(bind(Map.of("mongo.client.read-preference", "anywhere"))));
+    }
+
+    @Test
+    void poolMetrics_fromTheDriverEvents() {
+        ConnectionPoolListener listener = settings(new MongoClientProperties()).getConnectionPoolSettings()
+                .getConnectionPoolListeners().get(0);
+        var serverId = new ServerId(new ClusterId(), new ServerAddress("mongo1", 27017));
+        var connectionId = new ConnectionId(serverId);
+
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 1, TimeUnit.MILLISECONDS.toNanos(3)));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+        listener.connectionClosed(new ConnectionClosedEvent(connectionId, ConnectionClosedEvent.Reason.IDLE));
+
+        var checkout = meterRegistry.get("movieinfo.mongo.pool.checkout").tag("server.address", "mongo1:27017");
+        assertEquals(3.0, checkout.tag("outcome", "success").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("movieinfo.mongo.pool.checkout").tag("outcome", "timeout").timer().count());
+        assertEquals(1.0, meterRegistry.get("movieinfo.mongo.pool.closed").tag("reason", "idle").counter().count());
+    }
+
+    private MongoClientSettings settings(MongoClientProperties properties) {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        var builder = MongoClientSettings.builder();
+        new MongoClientConfig().mongoClientTuningCustomizer(properties, beanFactory.getBeanProvider(MeterRegistry.class))
+                .customize(builder);
+        return builder.build();
+    }
+
+    private static MongoClientProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("mongo.client", MongoClientProperties.class);
+    }
+
+    private static MongoAction action(MongoActionOperation operation) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, operation, "movieInfo", Object.class, null, null);
+    }
+}
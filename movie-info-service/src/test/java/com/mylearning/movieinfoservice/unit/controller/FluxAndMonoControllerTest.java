@@ -1,10 +1,12 @@
 package com.mylearning.movieinfoservice.unit.controller;
 
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
 import com.mylearning.movieinfoservice.controller.FluxAndMonoController;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -16,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @WebFluxTest(controllers = FluxAndMonoController.class)
+@Import(StreamHeartbeats.class)
 @AutoConfigureWebTestClient
 class FluxAndMonoControllerTest {
 
@@ -0,0 +1,160 @@
+package com.mylearning.movieinfoservice.unit.controller;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.service.MovieInfoServiceImpl;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// server.compression of application.yml against the real Netty server, the raw client sees the encoded bytes.
+// The service is mocked and Mongo left out, nothing here reaches a database.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration"
+})
+public class MovieInfoCompressionTest {
+
+    private static final String PATH = "/api/v1/movies/response-entity";
+
+    @MockitoBean
+    private MovieInfoServiceImpl movieInfoService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void getMovieInfos_gzip() {
+        var movieInfos = IntStream.range(0, 100)
+                .mapToObj(i -> movieInfo("id" + i))
+                .toList();
+        Mockito.when(movieInfoService.getMovieInfos()).thenReturn(Flux.fromIterable(movieInfos));
+
+        var response = get(PATH + "/getMovieInfos");
+
+        assertEquals("gzip", response.getT1().get(HttpHeaderNames.CONTENT_ENCODING));
+        String json = gunzip(response.getT2());
+        assertTrue(json.startsWith("[{") && json.contains("\"movieId\":\"id99\""), json);
+    }
+
+    @Test
+    void getMovieInfo_belowTheThreshold_notCompressed() {
+        Mockito.when(movieInfoService.getMovieInfo("abc")).thenReturn(Mono.just(movieInfo("abc")));
+
+        var response = get(PATH + "/getMovieInfo/abc");
+
+        assertNull(response.getT1().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertTrue(new String(response.getT2(), StandardCharsets.UTF_8).contains("\"movieId\":\"abc\""));
+    }
+
+    // the stream never ends, the event has to come out of the deflater while the response is still open
+    @Test
+    void streamMovieInfos_gzip_everyEventFlushed() {
+        Mockito.when(movieInfoService.addMovieInfo(Mockito.any(MovieInfo.class))).thenReturn(Mono.just(movieInfo("sse1")));
+        client().headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .post()
+                .uri(PATH + "/addMovieInfos")
+                .send(ByteBufFlux.fromString(Mono.just("""
+                        {"name": "Batman Begins", "year": 2005, "cast": ["Christian Bale"], "releaseDate": "2005-06-15"}
+                        """)))
+                .responseSingle((response, body) -> Mono.just(response.status().code()))
+                .block(Duration.ofSeconds(10));
+
+        var contentEncoding = new AtomicReference<String>();
+        var gunzip = new StreamingGunzip();
+        String received = client().headers(headers -> headers.set(HttpHeaderNames.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE))
+                .get()
+                .uri(PATH + "/movieInfos/stream")
+                .response((response, body) -> {
+                    contentEncoding.set(response.responseHeaders().get(HttpHeaderNames.CONTENT_ENCODING));
+                    return body.asByteArray();
+                })
+                .map(gunzip::feed)
+                .filter(text -> text.contains("\n\n")) // one complete event
+                .blockFirst(Duration.ofSeconds(10));
+
+        assertEquals("gzip", contentEncoding.get());
+        assertTrue(received != null && received.startsWith("data:") && received.contains("\"movieId\":\"sse1\""), received);
+    }
+
+    private HttpClient client() {
+        // no .compress(true) : the client neither asks nor decodes on its own, the header is set by hand
+        return HttpClient.create()
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip"));
+    }
+
+    private Tuple2<HttpHeaders, byte[]> get(String uri) {
+        return client().get()
+                .uri(uri)
+                .responseSingle((response, body) -> body.asByteArray()
+                        .map(bytes -> Tuples.of(response.responseHeaders(), bytes)))
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static MovieInfo movieInfo(String id) {
+        return new MovieInfo(id, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham", 1L);
+    }
+
+    private static String gunzip(byte[] gzip) {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // GZIPInputStream blocks for the end of the stream : the fixed 10 byte header Netty writes is skipped and the
+    // raw deflate data behind it inflated chunk by chunk, returns everything inflated so far
+    private static final class StreamingGunzip {
+        private final Inflater inflater = new Inflater(true);
+        private final StringBuilder text = new StringBuilder();
+        private int headerLeft = 10;
+
+        String feed(byte[] chunk) {
+            int skip = Math.min(headerLeft, chunk.length);
+            headerLeft -= skip;
+            inflater.setInput(chunk, skip, chunk.length - skip);
+            byte[] out = new byte[8192];
+            try {
+                int inflated;
+                while ((inflated = inflater.inflate(out)) > 0) {
+                    text.append(new String(out, 0, inflated, StandardCharsets.UTF_8));
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(e);
+            }
+            return text.toString();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.mylearning.movieinfoservice.unit.controller;
 
+import com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration;
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
+import com.mylearning.moviecommons.tracing.SignalTracer;
 import com.mylearning.movieinfoservice.controller.MovieInfoController;
 import com.mylearning.movieinfoservice.controller.MovieInfoResponseEntityController;
 import com.mylearning.movieinfoservice.model.MovieInfo;
@@ -9,20 +13,33 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@WebFluxTest(controllers = { MovieInfoController.class, MovieInfoResponseEntityController.class })
+@WebFluxTest(controllers = { MovieInfoController.class, MovieInfoResponseEntityController.class },
+        properties = "streams.drain.window=100ms")
 @AutoConfigureWebTestClient
+@Import({ SignalTracer.class, SmileCodecAutoConfiguration.class, StreamDrain.class, StreamHeartbeats.class })
 public class MovieInfoControllerTest {
 
     //@MockBean deprecated and now becomes MockitoBean
@@ -32,8 +49,13 @@ public class MovieInfoControllerTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private StreamDrain streamDrain;
+
     private final String MOVIE_INFO_PATH = "/api/v1/movies";
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
 
     @Test
     void addNewMovieInfo() {
@@ -64,6 +86,28 @@ public class MovieInfoControllerTest {
                 });
     }
 
+    // MovieInfo has a @Version : save() of a movie info with the id of an existing one and no version is an insert, not an
+    // upsert
+    @Test
+    void addNewMovieInfo_existingMovieId_conflict() {
+
+        var movieInfo = new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+
+        Mockito.when(movieInfoService.addMovieInfo(Mockito.any(MovieInfo.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error collection: test.movieInfo index: _id_")));
+
+        webTestClient
+                .post()
+                .uri(MOVIE_INFO_PATH + "/addMovieInfos")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(String.class)
+                .isEqualTo("A movie info with this movieId already exists");
+    }
+
     // testing my validation added to request body on moveInfo
     // name cannot be blank
     // year must be positive
@@ -179,6 +223,179 @@ public class MovieInfoControllerTest {
                 });
     }
 
+    @Test
+    void getMovieInfoById_eTag() {
+        var movieInfo = new MovieInfo("xyz789", "The Prestige", 2006, List.of("Hugh Jackman", "Christian Bale"),
+                LocalDate.of(2006, 10, 20), "Two rival magicians", 3L);
+
+        Mockito.when(movieInfoService.getMovieInfo("xyz789")).thenReturn(Mono.just(movieInfo));
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfo/{id}", "xyz789")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "W/\"xyz789-3\"")
+                .expectHeader()
+                .valueEquals(HttpHeaders.VARY, "Accept, Accept-Encoding")
+                .expectBody()
+                .jsonPath("$.version").doesNotExist();
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfo/{id}", "xyz789")
+                .ifNoneMatch("W/\"xyz789-3\"")
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+
+        // saved again since => a new version, a new ETag and the body
+        movieInfo.setVersion(4L);
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfo/{id}", "xyz789")
+                .ifNoneMatch("W/\"xyz789-3\"")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "W/\"xyz789-4\"");
+    }
+
+    @Test
+    void getMovieInfos_eTag() {
+        var movieinfos = List.of(
+                new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15"), "", 1L),
+                new MovieInfo("def", "The Dark Knight", 2008, List.of("Christian Bale"), LocalDate.parse("2008-07-18"), "", 2L));
+
+        Mockito.when(movieInfoService.getMovieInfos()).thenReturn(Flux.fromIterable(movieinfos));
+
+        var eTag = webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfos")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfos")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+
+        // one document updated => another ETag for the list
+        movieinfos.get(1).setVersion(3L);
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfos")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isOk();
+    }
+
+    // movie-service asks for Smile first (its WebClientConfig), anyone else still gets JSON
+    @Test
+    void getMovieInfoById_smile() {
+        var movieInfo = new MovieInfo(
+                "xyz789",
+                "The Prestige",
+                2006,
+                List.of("Hugh Jackman", "Christian Bale"),
+                LocalDate.of(2006, 10, 20),
+                "Two rival magicians in 19th-century London engage in a battle of wits, illusions, and obsession."
+        );
+
+        Mockito.when(movieInfoService.getMovieInfo(Mockito.any(String.class)))
+                .thenReturn(Mono.just(movieInfo));
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfo/{id}", "xyz789")
+                .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(SMILE)
+                .expectBody(MovieInfo.class)
+                .isEqualTo(movieInfo);
+
+        webTestClient
+                .get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/getMovieInfo/{id}", "xyz789")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.releaseDate").isEqualTo("2006-10-20");
+    }
+
+
+    // on shutdown the open stream ends with the drain event (no data, the reconnect hint in retry), the next
+    // subscriber is refused
+    @Test
+    @DirtiesContext // the StreamDrain of this context stays draining
+    void streamMovieInfos_drained() {
+        var movieInfo = new MovieInfo("sse1", "Batman Begins", 2005, List.of("Christian Bale"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+        Mockito.when(movieInfoService.addMovieInfo(Mockito.any(MovieInfo.class))).thenReturn(Mono.just(movieInfo));
+        webTestClient.post()
+                .uri(MOVIE_INFO_PATH + "/response-entity/addMovieInfos")
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+
+        var events = webTestClient.get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/movieInfos/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<MovieInfo>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertEquals("sse1", event.data().getMovieId());
+                    assertNull(event.event());
+                })
+                .then(() -> streamDrain.stop(() -> {
+                }))
+                .assertNext(event -> {
+                    assertEquals("drain", event.event());
+                    assertNull(event.data());
+                    assertTrue(event.retry().compareTo(Duration.ofSeconds(1)) >= 0
+                            && event.retry().compareTo(Duration.ofSeconds(5)) <= 0, event.retry().toString());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        webTestClient.get()
+                .uri(MOVIE_INFO_PATH + "/response-entity/movieInfos/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(503)
+                .expectHeader()
+                .exists(HttpHeaders.RETRY_AFTER);
+    }
 
     @Test
     void updateMovieInfo() {
@@ -0,0 +1,121 @@
+package com.mylearning.movieinfoservice.unit.filter;
+
+import com.mylearning.movieinfoservice.filter.AdaptiveConcurrencyLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AdaptiveConcurrencyLimitFilter limiter = new AdaptiveConcurrencyLimitFilter(true, 10, 2, 100, 0.2, now::get);
+
+    @Test
+    void limitGrowsWhileLatencyIsFlatAndShrinksWhenItRises() {
+
+        runSamples(200, 10);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        // Mongo slows down 5x, the limit backs off within a few rounds
+        runSamples(3, 50);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown, "limit " + shrunk + " after " + grown);
+        assertTrue(shrunk >= 2);
+    }
+
+    @Test
+    void filter_shedsWith503AboveTheLimit() {
+
+        var slow = Sinks.<Void>empty();
+        for (int i = 0; i < 10; i++) {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/movies/getMovieInfos"));
+            limiter.filter(exchange, ex -> slow.asMono()).subscribe();
+        }
+        assertEquals(10, limiter.getInFlight());
+
+        var shed = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/movies/getMovieInfos"));
+        limiter.filter(shed, ex -> Mono.empty()).block();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(1, limiter.getRejected());
+
+        // streams are never limited
+        var stream = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/movies/response-entity/movieInfos/stream"));
+        limiter.filter(stream, ex -> Mono.empty()).block();
+        assertNull(stream.getResponse().getStatusCode());
+
+        slow.tryEmitEmpty();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void errorsAndAppLimitedRequestsDoNotMoveTheLimit() {
+
+        runSamples(50, 10);
+        int limit = limiter.getLimit();
+
+        // fast 500s while saturated : not samples
+        runSamples(50, 1, false);
+        assertEquals(limit, limiter.getLimit());
+
+        // one request admitted alone and completing while others piled up : app limited, judged by its own admission
+        int inFlightAtStart = limiter.tryAcquire();
+        assertEquals(1, inFlightAtStart);
+        long start = now.get();
+        for (int i = 1; i < limit; i++) {
+            limiter.tryAcquire();
+        }
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        limiter.release(start, inFlightAtStart, true);
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    @Test
+    void filter_failedResponseIsNotASample() {
+
+        runSamples(50, 10);
+        int limit = limiter.getLimit();
+
+        for (int i = 0; i < 100; i++) {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/movies/getMovieInfos/unknown"));
+            limiter.filter(exchange, ex -> {
+                ex.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+                return Mono.empty();
+            }).block();
+        }
+
+        assertEquals(limit, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private void runSamples(int count, long rttMillis) {
+        runSamples(count, rttMillis, true);
+    }
+
+    // keeps the limiter saturated so every sample counts, each request taking rttMillis
+    private void runSamples(int count, long rttMillis, boolean success) {
+        for (int i = 0; i < count; i++) {
+            var admissions = new ArrayList<Integer>();
+            for (int inFlightAtStart = limiter.tryAcquire(); inFlightAtStart > 0; inFlightAtStart = limiter.tryAcquire()) {
+                admissions.add(inFlightAtStart);
+            }
+            long start = now.get();
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            // the last admitted saw the limiter full
+            for (int p = admissions.size() - 1; p >= 0; p--) {
+                limiter.release(start, admissions.get(p), success);
+            }
+        }
+    }
+}
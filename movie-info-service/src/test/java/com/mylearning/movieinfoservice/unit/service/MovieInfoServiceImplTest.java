@@ -0,0 +1,115 @@
+package com.mylearning.movieinfoservice.unit.service;
+
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviecommons.tracing.SignalTracer;
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.repository.MovieInfoRepository;
+import com.mylearning.movieinfoservice.service.MovieInfoServiceImpl;
+import com.mylearning.movieinfoservice.service.MovieInfoWriteHook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// BlockHound is installed for every test of this module (blockhound-junit-platform). The repository answers on the
+// parallel scheduler, a non-blocking thread like the Mongo driver's event loop, the hook sleeps like a JDBC call.
+class MovieInfoServiceImplTest {
+
+    private final MovieInfoRepository movieInfoRepository = Mockito.mock(MovieInfoRepository.class);
+    private final BlockingScheduler blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.AUTO, 2, 10);
+    private final SlowWriteHook writeHook = new SlowWriteHook();
+
+    @AfterEach
+    void tearDown() {
+        blockingScheduler.destroy();
+    }
+
+    @Test
+    void addMovieInfo_writeHookOnTheBlockingScheduler() {
+        var movieInfo = movieInfo("abc");
+        Mockito.when(movieInfoRepository.save(movieInfo)).thenReturn(onParallel(movieInfo));
+
+        StepVerifier.create(service(writeHook).addMovieInfo(movieInfo))
+                .expectNext(movieInfo)
+                .verifyComplete();
+
+        assertEquals(1, writeHook.calls.size());
+        assertTrue(writeHook.calls.get(0).startsWith("saved abc@blocking"), writeHook.calls.get(0));
+    }
+
+    @Test
+    void deleteMovieInfo_writeHookOnTheBlockingScheduler() {
+        Mockito.when(movieInfoRepository.existsById("abc")).thenReturn(onParallel(true));
+        Mockito.when(movieInfoRepository.deleteById("abc")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service(writeHook).deleteMovieInfo("abc"))
+                .verifyComplete();
+
+        assertEquals(1, writeHook.calls.size());
+        assertTrue(writeHook.calls.get(0).startsWith("deleted abc@blocking"), writeHook.calls.get(0));
+    }
+
+    @Test
+    void addMovieInfo_withoutHooks_staysOnTheRepositoryThread() {
+        var movieInfo = movieInfo("abc");
+        Mockito.when(movieInfoRepository.save(movieInfo)).thenReturn(onParallel(movieInfo));
+
+        StepVerifier.create(service().addMovieInfo(movieInfo)
+                        .map(saved -> Thread.currentThread().getName()))
+                .assertNext(threadName -> assertTrue(threadName.startsWith("parallel"), threadName))
+                .verifyComplete();
+    }
+
+    private MovieInfoServiceImpl service(MovieInfoWriteHook... writeHooks) {
+        var beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < writeHooks.length; i++) {
+            beanFactory.addBean("writeHook" + i, writeHooks[i]);
+        }
+        return new MovieInfoServiceImpl(movieInfoRepository, new SignalTracer(Set.of(), 1.0, false),
+                beanFactory.getBeanProvider(MovieInfoWriteHook.class), blockingScheduler);
+    }
+
+    private static <T> Mono<T> onParallel(T value) {
+        return Mono.just(value).publishOn(Schedulers.parallel());
+    }
+
+    private static MovieInfo movieInfo(String id) {
+        return new MovieInfo(id, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+    }
+
+    private static final class SlowWriteHook implements MovieInfoWriteHook {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void saved(MovieInfo movieInfo) {
+            sleep();
+            calls.add("saved " + movieInfo.getMovieId() + "@" + Thread.currentThread().getName());
+        }
+
+        @Override
+        public void deleted(String movieId) {
+            sleep();
+            calls.add("deleted " + movieId + "@" + Thread.currentThread().getName());
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
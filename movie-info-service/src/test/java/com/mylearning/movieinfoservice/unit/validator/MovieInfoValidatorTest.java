@@ -0,0 +1,57 @@
+package com.mylearning.movieinfoservice.unit.validator;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.validator.MovieInfoValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.ObjectError;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoValidatorTest {
+
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private static final MovieInfoValidator movieInfoValidator = new MovieInfoValidator();
+
+    static Stream<MovieInfo> movieInfos() {
+        var releaseDate = LocalDate.parse("2005-06-15");
+        return Stream.of(
+                new MovieInfo(null, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), releaseDate, null),
+                new MovieInfo(null, "", -2014, List.of(""), releaseDate, null),
+                new MovieInfo(null, " ", 0, List.of(" ", "Christian Bale", "\t"), null, null),
+                new MovieInfo(null, " ", 2005, List.of(" "), releaseDate, null),
+                new MovieInfo(null, null, null, null, null, null),
+                new MovieInfo(null, "Batman Begins", 2005, Arrays.asList("Christian Bale", null), releaseDate, null));
+    }
+
+    // same messages as Bean Validation, as GlobalExceptionHandler joins them (sorted, comma separated)
+    @ParameterizedTest
+    @MethodSource("movieInfos")
+    void validate_sameMessagesAsBeanValidation(MovieInfo movieInfo) {
+
+        String expected = validator.validate(movieInfo).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(","));
+
+        var errors = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+        movieInfoValidator.validate(movieInfo, errors);
+        String actual = errors.getAllErrors().stream()
+                .map(ObjectError::getDefaultMessage)
+                .sorted()
+                .collect(Collectors.joining(","));
+
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mylearning.movieinfoservice.unit.warmup;
+
+import com.mylearning.movieinfoservice.model.MovieInfo;
+import com.mylearning.movieinfoservice.service.MovieInfoServiceImpl;
+import com.mylearning.movieinfoservice.warmup.WarmUpRunner;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The warm-up against the real Netty server, the service is mocked and Mongo left out : warmup.movie-info-id is found.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration",
+        "warmup.enabled=true",
+        "warmup.iterations=200",
+        "warmup.movie-info-id=warm-up"
+})
+public class WarmUpRunnerTest {
+
+    @MockitoBean
+    private MovieInfoServiceImpl movieInfoService;
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private ReadinessRecorder readinessRecorder;
+
+    @Test
+    void warmUp_budgetSpentBeforeAcceptingTraffic() {
+        var report = warmUpRunner.report();
+
+        assertNotNull(report);
+        assertEquals(200, report.iterations());
+        assertEquals(200 * 6, report.calls());
+        assertEquals(0, report.failedCalls());
+        assertTrue(report.lastP99().compareTo(report.firstP99()) <= 0, report.toString());
+        assertNull(readinessRecorder.failure.get());
+        Mockito.verify(movieInfoService, Mockito.times(200 * 3)).getMovieInfo("warm-up");
+        Mockito.verifyNoMoreInteractions(movieInfoService);
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        // mocks are only reset after the test, the answer has to be there before the context (and the warm-up) starts
+        @Bean
+        static BeanPostProcessor foundLookups() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof MovieInfoServiceImpl service && Mockito.mockingDetails(bean).isMock()) {
+                        Mockito.when(service.getMovieInfo("warm-up")).thenReturn(Mono.just(new MovieInfo("warm-up", "Batman Begins", 2005,
+                                List.of("Christian Bale"), LocalDate.parse("2005-06-15"), "warm-up")));
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Bean
+        ReadinessRecorder readinessRecorder(WarmUpRunner warmUpRunner) {
+            return new ReadinessRecorder(warmUpRunner);
+        }
+    }
+
+    static class ReadinessRecorder implements ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+
+        private final WarmUpRunner warmUpRunner;
+        private final AtomicReference<String> failure = new AtomicReference<>();
+
+        ReadinessRecorder(WarmUpRunner warmUpRunner) {
+            this.warmUpRunner = warmUpRunner;
+        }
+
+        @Override
+        public void onApplicationEvent(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && warmUpRunner.report() == null) {
+                failure.set("accepting traffic before the warm-up ran");
+            }
+        }
+    }
+}
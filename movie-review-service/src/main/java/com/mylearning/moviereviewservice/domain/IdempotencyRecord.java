@@ -0,0 +1,30 @@
+package com.mylearning.moviereviewservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Claim for an Idempotency-Key header. The key is the _id, so Mongo's unique _id index decides which request
+// wins, and the TTL index on createdAt drops the claim once clients are no longer expected to retry.
+// requestHash : fingerprint of the body the key was first used with, a retry with another body is refused
+// leaseUntil  : while in the future the request holding the claim is still writing, after that a retry may take over
+// committed   : the review was written (it may have been deleted since)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String key;
+    private String reviewId;
+    private String requestHash;
+    private Instant leaseUntil;
+    private boolean committed;
+    @Indexed(expireAfter = "1d")
+    private Instant createdAt;
+}
@@ -0,0 +1,24 @@
+package com.mylearning.moviereviewservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Running rating totals per movie, kept up to date with $inc upserts by MovieRatingAggregator.
+// Only reviews that carry a rating are counted.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class MovieRating {
+    @Id
+    private Long movieInfoId;
+    private long ratingCount;
+    private double ratingSum;
+
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : ratingSum / ratingCount;
+    }
+}
@@ -1,26 +1,46 @@
 package com.mylearning.moviereviewservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mylearning.moviereviewservice.validator.ReviewFieldValidator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+// back the sorted top-N searches, so Mongo walks the index instead of sorting in memory : the "rating" sort
+// breaks ties on the reviewId, so its index ends with _id (renamed, a changed key spec under the old name fails)
+@CompoundIndexes({
+        @CompoundIndex(name = "movieInfoId_rating_recent", def = "{'movieInfoId': 1, 'rating': -1, '_id': -1}"),
+        @CompoundIndex(name = "movieInfoId_recent", def = "{'movieInfoId': 1, '_id': -1}")
+})
 public class Review {
     @Id
     private String reviewId;
-    @NotNull(message = "rating.movieInfoId : must not be null")
+    @NotNull(message = ReviewFieldValidator.MOVIE_INFO_ID_NULL)
     private Long movieInfoId;
     private String comment;
     //@Min(value = 0L, message = "rating.negative : please pass a non-negative value")
-    @PositiveOrZero(message = "rating.negative : please pass a non-negative value")
+    @PositiveOrZero(message = ReviewFieldValidator.RATING_NEGATIVE)
     private Double rating;
+
+    // bumped by Spring Data on every save and the source of the ETags (DocumentETags), never part of the JSON
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    public Review(String reviewId, Long movieInfoId, String comment, Double rating) {
+        this(reviewId, movieInfoId, comment, rating, null);
+    }
 }
 
 // @NotNull
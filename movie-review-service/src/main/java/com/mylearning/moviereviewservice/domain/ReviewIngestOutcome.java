@@ -0,0 +1,25 @@
+package com.mylearning.moviereviewservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of the bulk ingestion response, index is the 0 based position of the review in the request body
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewIngestOutcome {
+
+    public enum Status {
+        CREATED,  // stored
+        REJECTED, // malformed or failed validation, never sent to Mongo
+        FAILED,   // valid, but the write failed (duplicate reviewId, ...)
+        UNKNOWN   // written, but its write concern failed : it may or may not survive, retrying with the same reviewId is safe
+    }
+
+    private long index;
+    private Status status;
+    private String reviewId;
+    private Long movieInfoId;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.mylearning.moviereviewservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Review activity of one movie inside the trending window
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingMovie {
+    private Long movieInfoId;
+    private long reviewCount;
+    private Double averageRating;
+}
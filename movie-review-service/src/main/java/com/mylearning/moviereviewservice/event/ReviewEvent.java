@@ -0,0 +1,44 @@
+package com.mylearning.moviereviewservice.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mylearning.moviereviewservice.domain.Review;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// What the review streams send: the stored review (with its generated reviewId) plus what happened to it.
+// sequence is strictly increasing in emission order across every movie : on /sinks, which sends every event, a gap
+// is a missed event. A per movie topic gets its events in the order of the writes too (ReviewEventPublisher.inMovieOrder)
+// but its sequence skips the events of the other movies, there a gap says nothing.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewEvent {
+    private long sequence;
+    private ReviewEventType eventType;
+    private String reviewId;
+    private Long movieInfoId;
+    private Review review;
+    private Instant timestamp;
+
+    // only on the DRAINING event (StreamDrain) : when the client should reconnect, left out of every other event
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long reconnectAfterMillis;
+
+    public ReviewEvent(long sequence, ReviewEventType eventType, String reviewId, Long movieInfoId, Review review, Instant timestamp) {
+        this(sequence, eventType, reviewId, movieInfoId, review, timestamp, null);
+    }
+
+    // not a review event : no review and sequence 0, outside the order of the published events
+    public static ReviewEvent draining(Duration reconnectDelay) {
+        return new ReviewEvent(0, ReviewEventType.DRAINING, null, null, null, Instant.now(), reconnectDelay.toMillis());
+    }
+
+    // the keep-alive of an idle stream (StreamHeartbeats), same as draining : no review, sequence 0
+    public static ReviewEvent heartbeat() {
+        return new ReviewEvent(0, ReviewEventType.HEARTBEAT, null, null, null, Instant.now());
+    }
+}
@@ -0,0 +1,91 @@
+package com.mylearning.moviereviewservice.event;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Outbox style publishing: the handler only calls publish() once the repository write has been
+// acknowledged by Mongo, so subscribers never see a review without its reviewId or one whose save failed.
+// publish() is synchronized: the sequence number is assigned and the event emitted in one step, so the events come
+// out in a single total order, and the sinks never see concurrent tryEmitNext calls (which would fail with
+// FAIL_NON_SERIALIZED).
+// That order is the order of the publish() calls, not of the writes : two writes of the same movie acknowledged on
+// two driver threads could still publish the other way round. Writes that publish run in inMovieOrder(), which
+// runs one write + publish per movie at a time, so the events of a movie come out in the order of its writes.
+@Component
+@Slf4j
+public class ReviewEventPublisher {
+
+    // every event, the latest one is replayed to new subscribers
+    private final Sinks.Many<ReviewEvent> reviewEventSink = Sinks.many().replay().latest();
+
+    private final ReviewTopicRegistry reviewTopicRegistry;
+
+    private long sequence;
+
+    // movieInfoId -> completes when the last write + publish of that movie queued so far is done
+    private final Map<Long, Mono<Void>> movieTails = new HashMap<>();
+
+    public ReviewEventPublisher(ReviewTopicRegistry reviewTopicRegistry) {
+        this.reviewTopicRegistry = reviewTopicRegistry;
+    }
+
+    public synchronized ReviewEvent publish(ReviewEventType eventType, Review review) {
+        var event = new ReviewEvent(++sequence, eventType, review.getReviewId(), review.getMovieInfoId(), review, Instant.now());
+        Sinks.EmitResult result = reviewEventSink.tryEmitNext(event);
+        if (result.isFailure()) {
+            log.warn("Unable to emit review event {} : {}", event.getSequence(), result);
+        }
+        reviewTopicRegistry.publish(event);
+        return event;
+    }
+
+    /**
+     * Runs {@code writeAndPublish} (a write, then publish() of what it wrote) once the ones of the same movies queued
+     * before it are done, error and cancel included. Writes of other movies are not held back.
+     */
+    public <T> Mono<T> inMovieOrder(Collection<Long> movieInfoIds, Mono<T> writeAndPublish) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> done = Sinks.empty();
+            Mono<Void> tail = done.asMono();
+            List<Long> movies = movieInfoIds.stream().filter(Objects::nonNull).distinct().toList();
+            List<Mono<Void>> previous = new ArrayList<>(movies.size());
+            // every movie of the write queued in one step : two writes never wait for each other
+            synchronized (movieTails) {
+                for (Long movieInfoId : movies) {
+                    Mono<Void> previousTail = movieTails.put(movieInfoId, tail);
+                    if (previousTail != null) {
+                        previous.add(previousTail);
+                    }
+                }
+            }
+            return Mono.when(previous)
+                    .then(writeAndPublish)
+                    .doFinally(signal -> {
+                        synchronized (movieTails) {
+                            movies.forEach(movieInfoId -> movieTails.remove(movieInfoId, tail));
+                        }
+                        done.tryEmitEmpty();
+                    });
+        });
+    }
+
+    public Flux<ReviewEvent> asFlux() {
+        return reviewEventSink.asFlux();
+    }
+
+    public int subscriberCount() {
+        return reviewEventSink.currentSubscriberCount();
+    }
+}
@@ -0,0 +1,9 @@
+package com.mylearning.moviereviewservice.event;
+
+public enum ReviewEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    DRAINING, // the last line of a stream closed on shutdown, no review (ReviewEvent.draining)
+    HEARTBEAT // sent on an idle stream to keep it open, no review (ReviewEvent.heartbeat)
+}
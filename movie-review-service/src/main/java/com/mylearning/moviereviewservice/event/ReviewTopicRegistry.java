@@ -0,0 +1,70 @@
+package com.mylearning.moviereviewservice.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// One sink per movieInfoId ("topic"), so a movie page only receives the reviews of its own movie.
+// Topics are created on the first subscription and dropped again when the last subscriber leaves,
+// so memory and fan-out cost follow the movies people are actually watching, not total traffic.
+@Component
+@Slf4j
+public class ReviewTopicRegistry {
+
+    private final ConcurrentMap<Long, Topic> topics = new ConcurrentHashMap<>();
+
+    public Flux<ReviewEvent> subscribe(Long movieInfoId) {
+        // defer => the topic is only acquired when somebody actually subscribes,
+        // doFinally => released on complete, error and cancel (client disconnect)
+        return Flux.defer(() -> acquire(movieInfoId).asFlux())
+                .doFinally(signal -> release(movieInfoId));
+    }
+
+    public void publish(ReviewEvent event) {
+        Topic topic = topics.get(event.getMovieInfoId());
+        if (topic == null) {
+            return; // nobody is listening to this movie, nothing to do
+        }
+        Sinks.EmitResult result = topic.sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Unable to emit review event for movieInfoId {} : {}", event.getMovieInfoId(), result);
+        }
+    }
+
+    public int topicCount() {
+        return topics.size();
+    }
+
+    public int subscriberCount() {
+        int subscribers = 0;
+        for (Topic topic : topics.values()) {
+            subscribers += topic.sink.currentSubscriberCount();
+        }
+        return subscribers;
+    }
+
+    // compute / computeIfPresent run atomically per key, so a subscriber joining
+    // while the last one leaves can never end up on a sink that was already reclaimed
+    private Sinks.Many<ReviewEvent> acquire(Long movieInfoId) {
+        return topics.compute(movieInfoId, (id, topic) -> {
+            Topic current = topic == null ? new Topic() : topic;
+            current.subscribers++;
+            return current;
+        }).sink;
+    }
+
+    private void release(Long movieInfoId) {
+        topics.computeIfPresent(movieInfoId, (id, topic) -> --topic.subscribers == 0 ? null : topic);
+    }
+
+    private static final class Topic {
+        // directBestEffort => a slow subscriber misses elements instead of holding back the others,
+        // and the sink stays usable when its subscriber count drops to zero
+        private final Sinks.Many<ReviewEvent> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers; // only touched inside ConcurrentHashMap.compute
+    }
+}
@@ -1,41 +1,214 @@
 package com.mylearning.moviereviewservice.exceptionhandler;
 
-import com.mylearning.moviereviewservice.exception.ReviewDataException;
-import com.mylearning.moviereviewservice.exception.ReviewNotFoundException;
+import com.mylearning.moviecommons.web.AcceptNegotiation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 @Component
 @Slf4j
 @Order(-2)
 //If the GlobalErrorHandler isn’t invoked,then another error-handling mechanism(e.g., Spring’s default handler) might be processing the exception, bypassing your logs.
 // Add the @Order annotation to your GlobalErrorHandler to ensure it takes precedence over the default error handler.
+//
+// The error path is kept cheap, 404s for unknown reviews are normal traffic:
+// => the status comes from the @ResponseStatus of the exception class, looked up once per class and cached
+// => the fixed parts of every body are encoded to UTF-8 once per status, only the message is encoded per request
+// => expected 4xx are only counted (and logged at debug), 5xx stack traces are logged at most once per interval per type
+// => clients that accept JSON get application/problem+json (RFC 9457), everybody else keeps getting the plain message
 public class GlobalErrorHandler implements ErrorWebExceptionHandler {
 
+    private static final long STACK_TRACE_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private static final String DUPLICATE_REVIEW_ID = "A review with this reviewId already exists";
+
+    private final Map<Class<?>, HttpStatusCode> statusByType = new ConcurrentHashMap<>();
+    private final Map<Integer, ProblemBody> problemBodies = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AtomicLong> lastStackTraceLog = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+
+    // null in slices without metrics, every new type:status pair becomes a review.errors counter
+    private final MeterRegistry meterRegistry;
+
+    public GlobalErrorHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
-        log.error("Global exception caught: {}", ex.getMessage(), ex);
-        System.out.println("Hello from GlobalErrorHandler");
-
-        DataBufferFactory dataBufferFactory = exchange.getResponse().bufferFactory();
-        DataBuffer errorMessage = dataBufferFactory.wrap(ex.getMessage().getBytes()); //call a method on it to create a new DataBuffer containing your bytes.
-        if (ex instanceof ReviewDataException) {
-            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
-            return exchange.getResponse().writeWith(Mono.just(errorMessage));
+        ServerHttpResponse response = exchange.getResponse();
+        HttpStatusCode status = statusOf(ex);
+        String message = ex instanceof ResponseStatusException rse ? rse.getReason()
+                : ex instanceof DuplicateKeyException ? DUPLICATE_REVIEW_ID // the driver's message names the index
+                : ex.getMessage();
+
+        count(ex, status);
+        if (status.is5xxServerError()) {
+            logStackTrace(ex);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Global exception caught: {} : {}", status.value(), message);
+        }
+
+        if (response.isCommitted()) {
+            return Mono.error(ex); // headers are already on the wire, nothing we can write anymore
+        }
+
+        ProblemBody problemBody = problemBodies.computeIfAbsent(status.value(), ProblemBody::new);
+        byte[] body;
+        if (acceptsJson(exchange)) {
+            response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+            body = problemBody.json(message);
+        } else {
+            response.getHeaders().setContentType(TEXT_PLAIN_UTF8);
+            body = message == null ? problemBody.title : message.getBytes(StandardCharsets.UTF_8);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentLength(body.length);
+
+        DataBufferFactory dataBufferFactory = response.bufferFactory();
+        DataBuffer errorMessage = dataBufferFactory.wrap(body); //call a method on it to create a new DataBuffer containing your bytes.
+        return response.writeWith(Mono.just(errorMessage)); // step that actually sends the data to the client in WebFlux.
+    }
+
+    // "type:status" -> number of errors handled since startup
+    public Map<String, Long> errorCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        errorCounts.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    private HttpStatusCode statusOf(Throwable ex) {
+        if (ex instanceof ResponseStatusException rse) {
+            return rse.getStatusCode(); // 404 for unknown routes, 405, 415, bad request bodies ...
+        }
+        return statusByType.computeIfAbsent(ex.getClass(), type -> {
+            if (OptimisticLockingFailureException.class.isAssignableFrom(type)) {
+                return HttpStatus.CONFLICT; // two updates of the same review raced, the @Version of the loser was stale
+            }
+            if (DuplicateKeyException.class.isAssignableFrom(type)) {
+                // a create with the reviewId of an existing review : with the @Version, save() of a Review without a
+                // version inserts instead of overwriting the document
+                return HttpStatus.CONFLICT;
+            }
+            ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(type, ResponseStatus.class);
+            return responseStatus == null ? HttpStatus.INTERNAL_SERVER_ERROR : responseStatus.code();
+        });
+    }
+
+    private void count(Throwable ex, HttpStatusCode status) {
+        errorCounts.computeIfAbsent(ex.getClass().getSimpleName() + ":" + status.value(),
+                        key -> errorCounter(ex.getClass().getSimpleName(), status.value()))
+                .increment();
+    }
+
+    private LongAdder errorCounter(String exception, int status) {
+        LongAdder count = new LongAdder();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("review.errors", count, LongAdder::sum)
+                    .tag("exception", exception)
+                    .tag("status", String.valueOf(status))
+                    .description("Errors answered by the global error handler")
+                    .register(meterRegistry);
+        }
+        return count;
+    }
+
+    private void logStackTrace(Throwable ex) {
+        AtomicLong last = lastStackTraceLog.computeIfAbsent(ex.getClass(), type -> new AtomicLong(System.nanoTime() - STACK_TRACE_LOG_INTERVAL_NANOS));
+        long previous = last.get();
+        long now = System.nanoTime();
+        if (now - previous >= STACK_TRACE_LOG_INTERVAL_NANOS && last.compareAndSet(previous, now)) {
+            log.error("Global exception caught: {}", ex.getMessage(), ex);
+        } else {
+            log.error("Global exception caught: {} : {}", ex.getClass().getSimpleName(), ex.getMessage());
         }
-        if (ex instanceof ReviewNotFoundException) {
-            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
-            return exchange.getResponse().writeWith(Mono.just(errorMessage));
+    }
+
+    // plain text first : */* (curl, browsers) keeps the plain message, a client that prefers JSON to it gets problem+json.
+    // The header is parsed here, a malformed one must not turn the error into another error
+    private static boolean acceptsJson(ServerWebExchange exchange) {
+        MediaType preferred = AcceptNegotiation.preferred(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT),
+                MediaType.TEXT_PLAIN, MediaType.APPLICATION_PROBLEM_JSON, MediaType.APPLICATION_JSON);
+        return preferred != null && !MediaType.TEXT_PLAIN.equals(preferred);
+    }
+
+    // problem+json split around the detail, so only the detail has to be escaped and encoded per request
+    private static final class ProblemBody {
+        private final byte[] title;
+        private final byte[] prefix;
+        private final byte[] withoutDetail;
+
+        private ProblemBody(int status) {
+            HttpStatus httpStatus = HttpStatus.resolve(status);
+            String reason = httpStatus == null ? String.valueOf(status) : httpStatus.getReasonPhrase();
+            String head = "{\"type\":\"about:blank\",\"title\":\"" + reason + "\",\"status\":" + status;
+            this.title = reason.getBytes(StandardCharsets.UTF_8);
+            this.prefix = (head + ",\"detail\":\"").getBytes(StandardCharsets.UTF_8);
+            this.withoutDetail = (head + "}").getBytes(StandardCharsets.UTF_8);
+        }
+
+        private byte[] json(String detail) {
+            if (detail == null) {
+                return withoutDetail;
+            }
+            byte[] escaped = escape(detail).getBytes(StandardCharsets.UTF_8);
+            byte[] body = new byte[prefix.length + escaped.length + 2];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(escaped, 0, body, prefix.length, escaped.length);
+            body[body.length - 2] = '"';
+            body[body.length - 1] = '}';
+            return body;
+        }
+
+        private static String escape(String value) {
+            StringBuilder escaped = null;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    if (escaped == null) {
+                        escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+                    }
+                    switch (c) {
+                        case '"' -> escaped.append("\\\"");
+                        case '\\' -> escaped.append("\\\\");
+                        case '\n' -> escaped.append("\\n");
+                        case '\r' -> escaped.append("\\r");
+                        case '\t' -> escaped.append("\\t");
+                        default -> escaped.append(String.format("\\u%04x", (int) c));
+                    }
+                } else if (escaped != null) {
+                    escaped.append(c);
+                }
+            }
+            return escaped == null ? value : escaped.toString(); // no copy for the common case
         }
-        exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
-        return exchange.getResponse().writeWith(Mono.just(errorMessage)); // step that actually sends the data to the client in WebFlux.
     }
 
     //exchange.getResponse() → gets the current HTTP response object for this request.
@@ -0,0 +1,184 @@
+package com.mylearning.moviereviewservice.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per client token bucket for the review write routes (POST, PUT, DELETE), so one partner cannot use up the Mongo
+// pool that the reads share. Reads are never limited.
+// The client is the remote address : a header chosen by the caller could be rotated to get a fresh bucket per request.
+// Behind a proxy set server.forward-headers-strategy, the remote address is then the one the proxy forwarded.
+// POST /bulk has buckets of its own (review.rate-limit.bulk.*) : one bulk request carries any number of reviews.
+// Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA, the CAS friendly form of a
+// token bucket): admitting a request moves it forward by one emission interval, and the request is rejected
+// when it would be more than the burst capacity ahead of now. No locks, no background refill thread.
+// At most max-clients buckets are kept : idle ones are dropped (at most one scan per second), the clients that
+// still do not fit share one bucket, so a flood of new addresses is limited as a whole.
+@Component
+@Slf4j
+public class ReviewRateLimiter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    // the clients beyond max-clients : their shared bucket, and where their rejections are counted
+    public static final String OTHER_CLIENTS = "other";
+
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Buckets writeBuckets;
+    private final Buckets bulkBuckets;
+    private final int maxClients;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReviewRateLimiter(@Value("${review.rate-limit.capacity:100}") int capacity,
+                             @Value("${review.rate-limit.refill-per-second:50}") double refillPerSecond,
+                             @Value("${review.rate-limit.bulk.capacity:2}") int bulkCapacity,
+                             @Value("${review.rate-limit.bulk.refill-per-second:0.2}") double bulkRefillPerSecond,
+                             @Value("${review.rate-limit.max-clients:10000}") int maxClients,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this(capacity, refillPerSecond, bulkCapacity, bulkRefillPerSecond, maxClients, System::nanoTime, meterRegistry.getIfAvailable());
+    }
+
+    public ReviewRateLimiter(int capacity, double refillPerSecond, int bulkCapacity, double bulkRefillPerSecond, int maxClients,
+                             LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.writeBuckets = new Buckets(capacity, refillPerSecond, maxClients, nanoClock.getAsLong());
+        this.bulkBuckets = new Buckets(bulkCapacity, bulkRefillPerSecond, maxClients, nanoClock.getAsLong());
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        if (HttpMethod.GET.equals(request.method())) {
+            return next.handle(request);
+        }
+        String clientId = clientId(request);
+        long waitNanos = isBulk(request) ? tryAcquireBulk(clientId) : tryAcquire(clientId);
+        if (waitNanos == 0) {
+            return next.handle(request);
+        }
+        String rejectedClient = rejections.containsKey(clientId) || rejections.size() < maxClients ? clientId : OTHER_CLIENTS;
+        rejections.computeIfAbsent(rejectedClient, this::rejectionCounter).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rate limit exceeded for client {}, retry after {}s", clientId, retryAfterSeconds);
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .bodyValue("Too many requests, retry after " + retryAfterSeconds + " seconds");
+    }
+
+    // 0 when admitted, otherwise how long the client has to wait for the next token
+    public long tryAcquire(String clientId) {
+        return writeBuckets.tryAcquire(clientId, nanoClock.getAsLong());
+    }
+
+    public long tryAcquireBulk(String clientId) {
+        return bulkBuckets.tryAcquire(clientId, nanoClock.getAsLong());
+    }
+
+    // client id -> requests rejected with 429 since startup
+    public Map<String, Long> rejections() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        rejections.forEach((clientId, count) -> counts.put(clientId, count.sum()));
+        return counts;
+    }
+
+    private LongAdder rejectionCounter(String clientId) {
+        LongAdder count = new LongAdder();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("review.ratelimit.rejected", count, LongAdder::sum)
+                    .tag("client", clientId)
+                    .description("Review writes rejected with 429")
+                    .register(meterRegistry);
+        }
+        return count;
+    }
+
+    private static boolean isBulk(ServerRequest request) {
+        return HttpMethod.POST.equals(request.method()) && request.requestPath().pathWithinApplication().value().endsWith("/bulk");
+    }
+
+    private static String clientId(ServerRequest request) {
+        return request.remoteAddress()
+                .map(address -> address.getAddress() == null ? address.getHostString() : address.getAddress().getHostAddress())
+                .orElse("unknown");
+    }
+
+    // the GCRA buckets of one limit, client id -> theoretical arrival time
+    private static final class Buckets {
+
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final int maxClients;
+        private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+        private final AtomicLong lastEviction;
+
+        Buckets(int capacity, double refillPerSecond, int maxClients, long now) {
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1L);
+            this.maxClients = maxClients;
+            this.lastEviction = new AtomicLong(now - EVICTION_INTERVAL_NANOS);
+        }
+
+        long tryAcquire(String clientId, long now) {
+            AtomicLong bucket = bucket(clientId, now);
+            while (true) {
+                long arrival = bucket.get();
+                long start = Math.max(arrival, now);
+                long ahead = start - now;
+                if (ahead > burstToleranceNanos) {
+                    return ahead - burstToleranceNanos;
+                }
+                if (bucket.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private AtomicLong bucket(String clientId, long now) {
+            AtomicLong bucket = arrivals.get(clientId);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (arrivals.size() >= maxClients) {
+                evictIdleBuckets(now);
+                if (arrivals.size() >= maxClients) {
+                    // the shared bucket may take the map one over max-clients
+                    return arrivals.computeIfAbsent(OTHER_CLIENTS, id -> new AtomicLong(now));
+                }
+            }
+            return arrivals.computeIfAbsent(clientId, id -> new AtomicLong(now));
+        }
+
+        // a bucket whose arrival time is in the past is full again, forgetting it changes nothing for that client.
+        // One scan per EVICTION_INTERVAL at most, whoever wins the CAS does it
+        private void evictIdleBuckets(long now) {
+            long last = lastEviction.get();
+            if (now - last < EVICTION_INTERVAL_NANOS || !lastEviction.compareAndSet(last, now)) {
+                return;
+            }
+            arrivals.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+}
@@ -1,14 +1,36 @@
 package com.mylearning.moviereviewservice.handler;
 
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
+import com.mylearning.moviecommons.tracing.SignalTracer;
+import com.mylearning.moviecommons.web.AcceptNegotiation;
+import com.mylearning.moviecontracts.DocumentETags;
+import com.mylearning.moviecontracts.ReviewApi;
 import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.domain.ReviewIngestOutcome;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
 import com.mylearning.moviereviewservice.exception.ReviewDataException;
 import com.mylearning.moviereviewservice.exception.ReviewNotFoundException;
 import com.mylearning.moviereviewservice.repository.ReviewRepository;
+import com.mylearning.moviereviewservice.service.MovieRatingAggregator;
+import com.mylearning.moviereviewservice.service.ReviewBulkIngestService;
+import com.mylearning.moviereviewservice.service.ReviewIdempotencyService;
+import com.mylearning.moviereviewservice.service.ReviewWriteHook;
+import com.mylearning.moviereviewservice.service.TrendingMoviesService;
+import com.mylearning.moviereviewservice.validator.ReviewFieldValidator;
 import com.mylearning.moviereviewservice.validator.ReviewValidator;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -17,12 +39,16 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+
 @Component
 @Slf4j
 public class ReviewHandler {
@@ -35,12 +61,58 @@ public class ReviewHandler {
     @Autowired
     private Validator validator;
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final ReviewRepository reviewRepository;
 
-    public ReviewHandler(ReviewRepository reviewRepositor) {
+    private final ReviewTopicRegistry reviewTopicRegistry;
+
+    private final ReviewEventPublisher reviewEventPublisher;
+
+    private final MovieRatingAggregator movieRatingAggregator;
+
+    private final ReviewBulkIngestService reviewBulkIngestService;
+
+    private final ReviewIdempotencyService reviewIdempotencyService;
+
+    private final TrendingMoviesService trendingMoviesService;
+
+    // the hooks may block, they only ever run on the blocking scheduler (see ReviewWriteHook)
+    private final List<ReviewWriteHook> writeHooks;
+
+    private final BlockingScheduler blockingScheduler;
+
+    private final StreamDrain streamDrain;
+
+    private final StreamHeartbeats streamHeartbeats;
+
+    // the stream used to end with .log(), for a long lived stream the span is the whole subscription
+    private final SignalTracer.Endpoint streamTrace;
+
+    public ReviewHandler(ReviewRepository reviewRepositor, ReviewTopicRegistry reviewTopicRegistry,
+                         ReviewEventPublisher reviewEventPublisher, MovieRatingAggregator movieRatingAggregator,
+                         ReviewBulkIngestService reviewBulkIngestService, ReviewIdempotencyService reviewIdempotencyService,
+                         TrendingMoviesService trendingMoviesService, SignalTracer signalTracer,
+                         ObjectProvider<ReviewWriteHook> writeHooks, BlockingScheduler blockingScheduler,
+                         StreamDrain streamDrain, StreamHeartbeats streamHeartbeats) {
         this.reviewRepository = reviewRepositor;
+        this.reviewTopicRegistry = reviewTopicRegistry;
+        this.reviewEventPublisher = reviewEventPublisher;
+        this.movieRatingAggregator = movieRatingAggregator;
+        this.reviewBulkIngestService = reviewBulkIngestService;
+        this.reviewIdempotencyService = reviewIdempotencyService;
+        this.trendingMoviesService = trendingMoviesService;
+        this.writeHooks = writeHooks.orderedStream().toList();
+        this.blockingScheduler = blockingScheduler;
+        this.streamDrain = streamDrain;
+        this.streamHeartbeats = streamHeartbeats;
+        this.streamTrace = signalTracer.endpoint("ReviewHandler.getReviewsStream");
     }
-    Sinks.Many<Review> reviewsSink = Sinks.many().replay().latest();
 
 // Got an error: If reviewRepository.save(review) is reactive (returns Mono<Review>), then bodyValue(...) is wrong, because bodyValue expects a plain object, not a Mono.
 
@@ -62,24 +134,105 @@ public class ReviewHandler {
     // First flatMap unwraps the Mono<Review> from save() into a Review object for the next step.
     // The Second flatMap sends the actual object (Review) into bodyValue(...).
     // bodyValue is happy because it gets a plain Review.
+    // With an Idempotency-Key header a retried request gets the original review back (Idempotent-Replayed: true)
+    // instead of creating a second document.
     public Mono<ServerResponse> addReview(ServerRequest serverRequest) {
         log.info("ReviewHandler.createReview");
+        String idempotencyKey = serverRequest.headers().firstHeader(IDEMPOTENCY_KEY);
 
         return serverRequest.bodyToMono(Review.class) // Mono<Review>
-                .doOnNext(this::validate2) // review -> validate(review)
-                .doOnNext(review -> {
-                    reviewsSink.tryEmitNext(review);
-                })
-                .flatMap(reviewRepository::save) // review -> reviewRepository.save(review)
-                .flatMap(review -> ServerResponse.status(HttpStatus.CREATED).bodyValue(review));
+                .doOnNext(this::validate3) // review -> validate(review)
+                .flatMap(review -> idempotencyKey == null || idempotencyKey.isBlank()
+                        ? saveReview(review).map(savedReview -> new ReviewIdempotencyService.Submission(savedReview, false))
+                        : reviewIdempotencyService.submit(idempotencyKey, review, this::saveReview))
+                .flatMap(submission -> ServerResponse.status(HttpStatus.CREATED)
+                        .header(IDEMPOTENT_REPLAYED, String.valueOf(submission.replayed()))
+                        .bodyValue(submission.review()));
+    }
+
+    private Mono<Review> saveReview(Review review) {
+        // emit only after the write is acknowledged, so the event carries the generated reviewId;
+        // in movie order : no other write of this movie between the save and its event
+        return reviewEventPublisher.inMovieOrder(List.of(review.getMovieInfoId()), reviewRepository.save(review)
+                        .doOnNext(savedReview -> reviewEventPublisher.publish(ReviewEventType.CREATED, savedReview)))
+                .flatMap(savedReview -> movieRatingAggregator.addAll(List.of(savedReview)).thenReturn(savedReview))
+                .flatMap(savedReview -> afterWrite(hook -> hook.saved(savedReview)).thenReturn(savedReview));
+    }
+
+    // without hooks (the default) the write does not leave the thread it completed on
+    private Mono<Void> afterWrite(Consumer<ReviewWriteHook> call) {
+        if (writeHooks.isEmpty()) {
+            return Mono.empty();
+        }
+        return blockingScheduler.run(() -> writeHooks.forEach(call));
+    }
+
+    // NDJSON in, NDJSON out : one ReviewIngestOutcome per input line, streamed back as the batches complete.
+    // The body is read as lines (String), each one parsed on its own by the service
+    //curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @reviews.ndjson http://localhost:8082/api/v1/review/bulk
+    public Mono<ServerResponse> bulkAddReviews(ServerRequest serverRequest) {
+        log.info("ReviewHandler.bulkAddReviews");
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reviewBulkIngestService.ingest(serverRequest.bodyToFlux(String.class)), ReviewIngestOutcome.class);
+    }
+
+    // served from memory, see TrendingMoviesService
+    //http://localhost:8082/api/v1/review/trending
+    public Mono<ServerResponse> getTrendingMovies(ServerRequest serverRequest) {
+        return ServerResponse.ok().bodyValue(trendingMoviesService.trending());
+    }
+
+    public Mono<ServerResponse> getMovieRating(ServerRequest serverRequest) {
+        String movieInfoId = serverRequest.pathVariable("movieInfoId");
+        Long id;
+        try {
+            id = Long.valueOf(movieInfoId);
+        } catch (NumberFormatException ex) {
+            return Mono.error(new ReviewDataException("movieInfoId must be a number"));
+        }
+        return movieRatingAggregator.find(id)
+                .switchIfEmpty(Mono.error(new ReviewNotFoundException("No ratings found for movieInfoId: " + id)))
+                .flatMap(movieRating -> ServerResponse.ok().bodyValue(movieRating));
     }
 
 
+    // both streams end with a DRAINING event when the pod shuts down (StreamDrain), which then refuses new subscribers.
+    // Idle, they send a HEARTBEAT event every streams.heartbeat.interval, a subscriber that stopped reading is reaped.
     public Mono<ServerResponse> getReviewsStream(ServerRequest serverRequest) {
+        if (streamDrain.isDraining()) {
+            return drainingResponse();
+        }
         return ServerResponse.ok()
                 .contentType(MediaType.APPLICATION_NDJSON)
-                .body(reviewsSink.asFlux(), Review.class)
-                .log();
+                .body(streamDrain.drainable(streamHeartbeats.withHeartbeats("all", serverRequest.exchange().getRequest(),
+                                reviewEventPublisher.asFlux().transform(streamTrace::trace), ReviewEvent::heartbeat),
+                        ReviewEvent::draining), ReviewEvent.class);
+    }
+
+    // per movie stream, only the reviews of the requested movieInfoId are sent to the subscriber
+    //http://localhost:8082/api/v1/review/sinks/101
+    public Mono<ServerResponse> getReviewsStreamByMovieInfoId(ServerRequest serverRequest) {
+        String movieInfoId = serverRequest.pathVariable("movieInfoId");
+        Long id;
+        try {
+            id = Long.valueOf(movieInfoId);
+        } catch (NumberFormatException ex) {
+            return Mono.error(new ReviewDataException("movieInfoId must be a number"));
+        }
+        if (streamDrain.isDraining()) {
+            return drainingResponse();
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamDrain.drainable(streamHeartbeats.withHeartbeats("per-movie", serverRequest.exchange().getRequest(),
+                        reviewTopicRegistry.subscribe(id), ReviewEvent::heartbeat), ReviewEvent::draining), ReviewEvent.class);
+    }
+
+    private Mono<ServerResponse> drainingResponse() {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(streamDrain.retryAfterSeconds()))
+                .build();
     }
 
     // custom Validation class implementation
@@ -112,11 +265,23 @@ public class ReviewHandler {
         }
     }
 
+    // hand written checks, same messages as validate2 without the reflective Bean Validation walk
+    private void validate3(Review review) {
+        String errorMessage = ReviewFieldValidator.validate(review);
+        if (errorMessage != null) {
+            log.error("errorMessage from validator3 : {} ", errorMessage);
+            throw new ReviewDataException(errorMessage);
+        }
+    }
+
     public Mono<ServerResponse> getReview(ServerRequest serverRequest) {
         log.info("ReviewHandler.getReview");
         String id = serverRequest.pathVariable("id");
         return reviewRepository.findById(id)
-                .flatMap(review -> ServerResponse.ok().bodyValue(review))
+                .flatMap(review -> ServerResponse.ok()
+                        .eTag(DocumentETags.of(review.getReviewId(), review.getVersion()))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .bodyValue(review))
                 .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not Found for the given Review Id: " + id)));// return 404 if no review
 //                .onErrorResume(ex -> {
 //                    log.error("Error fetching review for id: {}", id, ex);
@@ -130,15 +295,19 @@ public class ReviewHandler {
         return reviewRepository.findAll()
                 .switchIfEmpty(Mono.error(new ReviewNotFoundException("No reviews found")))
                 .collectList()
-                .flatMap(reviews -> ServerResponse.ok().bodyValue(reviews));
+                .flatMap(reviews -> ServerResponse.ok()
+                        .eTag(eTagOf(reviews))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .bodyValue(reviews));
     }
 
     //http://localhost:8081/api/v1/review/search?movieInfoId=101
+    //http://localhost:8081/api/v1/review/search?movieInfoId=101&sort=rating&limit=5&minRating=7
     public Mono<ServerResponse> getReviewByMovieInfoId(ServerRequest serverRequest) {
         log.info("ReviewHandler.getReviewByMovieInfoId");
         //queryParam() is a method of ServerRequest used to retrieve query parameters from the request URL.
         //A query parameter is part of the URL that comes after the ? and is usually used to pass optional data to the server.
-        Optional<String> movieInfoId = serverRequest.queryParam("movieInfoId");
+        Optional<String> movieInfoId = serverRequest.queryParam(ReviewApi.MOVIE_INFO_ID);
         log.info("movieInfoId: {}", movieInfoId);
 
         // Check if movieInfoId is present and not blank
@@ -146,13 +315,20 @@ public class ReviewHandler {
             return ServerResponse.badRequest()
                     .bodyValue("Query parameter 'movieInfoId' is required");
         }
-        Flux<Review> reviewsFlux = reviewRepository.findReviewsByMovieInfoId(Long.valueOf(movieInfoId.get()));
-
-        // Asynchronous check for empty results
-        return reviewsFlux.hasElements() // hasElements() returns a Mono<Boolean>
-                .flatMap(hasElements -> {
-                    if (hasElements) {
-                        return ServerResponse.ok().body(reviewsFlux, Review.class);
+        Flux<Review> reviewsFlux = searchReviews(Long.valueOf(movieInfoId.get()), serverRequest);
+
+        // collected for the ETag (and queried once, hasElements() + body() used to run the search twice), the search
+        // is bounded by the reviews of one movie and by limit when passed;
+        // a client sending the current ETag back in If-None-Match gets a 304 without a body
+        return reviewsFlux.collectList()
+                .flatMap(reviews -> {
+                    if (!reviews.isEmpty()) {
+                        return ServerResponse.ok()
+                                .contentType(jsonOrSmile(serverRequest))
+                                .eTag(eTagOf(reviews))
+                                // the tag is the same for JSON and Smile, gzip or not : caches key on these too
+                                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                                .bodyValue(reviews);
                     } else {
                         return ServerResponse.status(HttpStatus.NOT_FOUND)
                                 .bodyValue("No reviews found for movieInfoId: " + movieInfoId);
@@ -161,6 +337,78 @@ public class ReviewHandler {
 
     }
 
+    private static String eTagOf(List<Review> reviews) {
+        return DocumentETags.ofAll(reviews, Review::getReviewId, Review::getVersion);
+    }
+
+    // a handler function does not negotiate, without a content type the first writer able to write (JSON) wins.
+    // JSON first : */* and no Accept header get JSON, Smile when the client prefers it (movie-service's WebClientConfig)
+    private static MediaType jsonOrSmile(ServerRequest serverRequest) {
+        MediaType preferred = AcceptNegotiation.preferred(serverRequest.headers().accept(), MediaType.APPLICATION_JSON, SMILE);
+        return preferred == null ? MediaType.APPLICATION_JSON : preferred;
+    }
+
+    // sort, limit and minRating are optional; when none is passed we keep the plain unsorted lookup.
+    // Otherwise the sort + limit run inside Mongo (backed by the compound indexes on Review),
+    // so a movie with thousands of reviews costs the same as one with five.
+    private Flux<Review> searchReviews(Long movieInfoId, ServerRequest serverRequest) {
+        Optional<String> sort = serverRequest.queryParam("sort");
+        Optional<String> limit = serverRequest.queryParam("limit");
+        Optional<String> minRating = serverRequest.queryParam("minRating");
+
+        if (sort.isEmpty() && limit.isEmpty() && minRating.isEmpty()) {
+            return reviewRepository.findReviewsByMovieInfoId(movieInfoId);
+        }
+
+        Sort order;
+        Limit max;
+        Double min;
+        try {
+            order = sort.map(ReviewHandler::toSort).orElse(Sort.unsorted());
+            max = limit.map(ReviewHandler::toLimit).orElse(Limit.unlimited());
+            min = minRating.map(ReviewHandler::toMinRating).orElse(null);
+        } catch (ReviewDataException ex) {
+            return Flux.error(ex);
+        }
+
+        return min == null
+                ? reviewRepository.findReviewsByMovieInfoId(movieInfoId, order, max)
+                : reviewRepository.findReviewsByMovieInfoIdAndRatingGreaterThanEqual(movieInfoId, min, order, max);
+    }
+
+    // "recent" relies on the ObjectId reviewId, which starts with its creation timestamp : each sort has a matching index on Review
+    private static Sort toSort(String sort) {
+        return switch (sort) {
+            case "recent" -> Sort.by(Sort.Direction.DESC, "reviewId");
+            case "rating" -> Sort.by(Sort.Direction.DESC, "rating").and(Sort.by(Sort.Direction.DESC, "reviewId"));
+            default -> throw new ReviewDataException("sort must be one of : recent, rating");
+        };
+    }
+
+    private static Limit toLimit(String limit) {
+        try {
+            int max = Integer.parseInt(limit);
+            if (max < 1 || max > MAX_SEARCH_LIMIT) {
+                throw new ReviewDataException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+            }
+            return Limit.of(max);
+        } catch (NumberFormatException ex) {
+            throw new ReviewDataException("limit must be a number");
+        }
+    }
+
+    private static Double toMinRating(String minRating) {
+        try {
+            double min = Double.parseDouble(minRating);
+            if (min < 0.0) {
+                throw new ReviewDataException("minRating must be a non-negative value");
+            }
+            return min;
+        } catch (NumberFormatException ex) {
+            throw new ReviewDataException("minRating must be a number");
+        }
+    }
+
     public Mono<ServerResponse> updateReview(ServerRequest serverRequest) {
         log.info("ReviewHandler.updateReview");
         String id = serverRequest.pathVariable("id");
@@ -172,11 +420,14 @@ public class ReviewHandler {
                                         "Review not Found for the given Review Id: " + id
                                 )))
                                 .flatMap(existingReview -> {
+                                    var before = copyOf(existingReview);
                                     existingReview.setComment(updatedReview.getComment());
                                     existingReview.setRating(updatedReview.getRating());
                                     existingReview.setMovieInfoId(updatedReview.getMovieInfoId());
 
-                                    return reviewRepository.save(existingReview);
+                                    return saveUpdated(before, existingReview)
+                                            .flatMap(savedReview -> movieRatingAggregator.replace(before, savedReview).thenReturn(savedReview))
+                                            .flatMap(savedReview -> afterWrite(hook -> hook.saved(savedReview)).thenReturn(savedReview));
                                 })
                 )
                 .flatMap(savedReview ->
@@ -210,21 +461,36 @@ public class ReviewHandler {
 //                );
 
                 //or this both are same
-                .flatMap(existingReview -> serverRequest.bodyToMono(Review.class)
-                        .map(updatedReview -> {
-                            // update existing review with incoming data
-                            existingReview.setComment(updatedReview.getComment());
-                            existingReview.setRating(updatedReview.getRating());
-                            existingReview.setMovieInfoId(updatedReview.getMovieInfoId());
-                            return existingReview;
-                        })
-                        .flatMap(reviewRepository::save)
-                        .flatMap(savedReview -> ServerResponse.ok()
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .bodyValue(savedReview)
-                        )
-                );
+                .flatMap(existingReview -> {
+                    var before = copyOf(existingReview);
+                    return serverRequest.bodyToMono(Review.class)
+                            .map(updatedReview -> {
+                                // update existing review with incoming data
+                                existingReview.setComment(updatedReview.getComment());
+                                existingReview.setRating(updatedReview.getRating());
+                                existingReview.setMovieInfoId(updatedReview.getMovieInfoId());
+                                return existingReview;
+                            })
+                            .flatMap(updatedReview -> saveUpdated(before, updatedReview))
+                            .flatMap(savedReview -> movieRatingAggregator.replace(before, savedReview).thenReturn(savedReview))
+                            .flatMap(savedReview -> afterWrite(hook -> hook.saved(savedReview)).thenReturn(savedReview))
+                            .flatMap(savedReview -> ServerResponse.ok()
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .bodyValue(savedReview)
+                            );
+                });
+
+    }
+
+    // the movie the review leaves and the one it moves to, both see the update in the order of their writes
+    private Mono<Review> saveUpdated(Review before, Review updatedReview) {
+        return reviewEventPublisher.inMovieOrder(Arrays.asList(before.getMovieInfoId(), updatedReview.getMovieInfoId()),
+                reviewRepository.save(updatedReview)
+                        .doOnNext(savedReview -> reviewEventPublisher.publish(ReviewEventType.UPDATED, savedReview)));
+    }
 
+    private static Review copyOf(Review review) {
+        return new Review(review.getReviewId(), review.getMovieInfoId(), review.getComment(), review.getRating());
     }
 
 
@@ -236,7 +502,11 @@ public class ReviewHandler {
                 .switchIfEmpty(Mono.error(new ReviewNotFoundException(
                         "Review not Found for the given Review Id: " + id
                 )))
-                .flatMap(review -> reviewRepository.delete(review)
+                .flatMap(review -> reviewEventPublisher.inMovieOrder(Arrays.asList(review.getMovieInfoId()),
+                                reviewRepository.delete(review)
+                                        .then(Mono.fromRunnable(() -> reviewEventPublisher.publish(ReviewEventType.DELETED, review))))
+                        .then(movieRatingAggregator.remove(review))
+                        .then(afterWrite(hook -> hook.deleted(review)))
                         .then(ServerResponse.ok()
                                 .bodyValue("Review deleted successfully"))
                 );
@@ -0,0 +1,38 @@
+package com.mylearning.moviereviewservice.metrics;
+
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Gauges for the review event sinks, read when Prometheus scrapes, nothing is done on the publish path.
+// The request timings come from Spring Boot itself (http.server.requests, mongodb.driver.commands),
+// the error and rate limit counters are registered by GlobalErrorHandler and ReviewRateLimiter.
+@Component
+public class ReviewStreamMetrics implements MeterBinder {
+
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final ReviewTopicRegistry reviewTopicRegistry;
+
+    public ReviewStreamMetrics(ReviewEventPublisher reviewEventPublisher, ReviewTopicRegistry reviewTopicRegistry) {
+        this.reviewEventPublisher = reviewEventPublisher;
+        this.reviewTopicRegistry = reviewTopicRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("review.stream.subscribers", reviewEventPublisher, ReviewEventPublisher::subscriberCount)
+                .tag("stream", "all")
+                .description("Subscribers of /api/v1/review/sinks, every movie")
+                .register(registry);
+        Gauge.builder("review.stream.subscribers", reviewTopicRegistry, ReviewTopicRegistry::subscriberCount)
+                .tag("stream", "per-movie")
+                .description("Subscribers of /api/v1/review/sinks/{movieInfoId}, all movies together")
+                .register(registry);
+        Gauge.builder("review.stream.topics", reviewTopicRegistry, ReviewTopicRegistry::topicCount)
+                .description("Movies with at least one live subscriber")
+                .register(registry);
+    }
+}
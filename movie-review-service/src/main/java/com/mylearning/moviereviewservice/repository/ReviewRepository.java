@@ -1,6 +1,8 @@
 package com.mylearning.moviereviewservice.repository;
 
 import com.mylearning.moviereviewservice.domain.Review;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -8,4 +10,9 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface ReviewRepository extends ReactiveMongoRepository<Review,String> {
     Flux<Review> findReviewsByMovieInfoId(Long movieInfoId);
+
+    // Sort and Limit are passed down to Mongo, so only the requested page ever leaves the database
+    Flux<Review> findReviewsByMovieInfoId(Long movieInfoId, Sort sort, Limit limit);
+
+    Flux<Review> findReviewsByMovieInfoIdAndRatingGreaterThanEqual(Long movieInfoId, Double minRating, Sort sort, Limit limit);
 }
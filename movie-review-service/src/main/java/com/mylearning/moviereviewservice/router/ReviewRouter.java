@@ -1,11 +1,15 @@
 package com.mylearning.moviereviewservice.router;
 
+import com.mylearning.moviecontracts.ReviewApi;
+import com.mylearning.moviereviewservice.filter.ReviewRateLimiter;
 import com.mylearning.moviereviewservice.handler.ReviewHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
 import static org.springframework.web.reactive.function.server.RequestPredicates.path;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
@@ -22,7 +26,7 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 public class ReviewRouter {
 
     @Bean
-    public RouterFunction<ServerResponse> reviewRoute(ReviewHandler reviewHandler) {
+    public RouterFunction<ServerResponse> reviewRoute(ReviewHandler reviewHandler, ReviewRateLimiter reviewRateLimiter) {
         return route()
                 .GET("/api/v1/hello", (request) -> {
                     return ServerResponse.ok().bodyValue("Hello World");
@@ -38,14 +42,20 @@ public class ReviewRouter {
 
                 //    we can also use nest
                 // => RouterFunctions.Builder nest(RequestPredicate predicate,Consumer<RouterFunctions.Builder> builderConsumer)
-                .nest(path("/api/v1/review"), builder ->
-                        builder.GET("/search", reviewHandler::getReviewByMovieInfoId)
+                .nest(path(ReviewApi.BASE), builder ->
+                        builder.GET(ReviewApi.SEARCH, reviewHandler::getReviewByMovieInfoId)
                                 .GET("/stream", reviewHandler::getAllReview)
                                 .GET("/sinks", reviewHandler::getReviewsStream)
+                                .GET("/sinks/{movieInfoId}", reviewHandler::getReviewsStreamByMovieInfoId)
+                                .GET("/ratings/{movieInfoId}", reviewHandler::getMovieRating)
+                                .GET("/trending", reviewHandler::getTrendingMovies)
                                 .GET("/{id}", reviewHandler::getReview)
+                                .POST("/bulk", contentType(MediaType.APPLICATION_NDJSON), reviewHandler::bulkAddReviews)
                                 .POST("", reviewHandler::addReview)
                                 .PUT("/{id}", reviewHandler::updateReview)
-                                .DELETE("/{id}", reviewHandler::deleteReview))
+                                .DELETE("/{id}", reviewHandler::deleteReview)
+                                // HandlerFilterFunction => runs around every handler of this nest, writes only are limited
+                                .filter(reviewRateLimiter))
                 .build();
     }
 }
@@ -0,0 +1,72 @@
+package com.mylearning.moviereviewservice.service;
+
+import com.mylearning.moviereviewservice.domain.MovieRating;
+import com.mylearning.moviereviewservice.domain.Review;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Maintains MovieRating. Changes are folded per movieInfoId first, so a batch of 500 reviews for
+// 3 movies costs 3 upserts in a single unordered bulk write instead of 500 individual updates.
+@Component
+public class MovieRatingAggregator {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public MovieRatingAggregator(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    public Mono<Void> addAll(Collection<Review> reviews) {
+        Map<Long, double[]> deltas = new HashMap<>();
+        reviews.forEach(review -> accumulate(deltas, review, 1));
+        return apply(deltas);
+    }
+
+    public Mono<Void> remove(Review review) {
+        Map<Long, double[]> deltas = new HashMap<>();
+        accumulate(deltas, review, -1);
+        return apply(deltas);
+    }
+
+    public Mono<Void> replace(Review before, Review after) {
+        Map<Long, double[]> deltas = new HashMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        return apply(deltas);
+    }
+
+    public Mono<MovieRating> find(Long movieInfoId) {
+        return reactiveMongoTemplate.findById(movieInfoId, MovieRating.class);
+    }
+
+    // deltas : movieInfoId -> [count, sum]
+    private static void accumulate(Map<Long, double[]> deltas, Review review, int sign) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return;
+        }
+        double[] delta = deltas.computeIfAbsent(review.getMovieInfoId(), id -> new double[2]);
+        delta[0] += sign;
+        delta[1] += sign * review.getRating();
+    }
+
+    private Mono<Void> apply(Map<Long, double[]> deltas) {
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        var bulkOperations = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieRating.class);
+        deltas.forEach((movieInfoId, delta) -> bulkOperations.upsert(
+                Query.query(Criteria.where("_id").is(movieInfoId)),
+                new Update().inc("ratingCount", (long) delta[0]).inc("ratingSum", delta[1])));
+        return bulkOperations.execute().then();
+    }
+}
@@ -0,0 +1,183 @@
+package com.mylearning.moviereviewservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.domain.ReviewIngestOutcome;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.validator.ReviewFieldValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Bulk import of reviews (NDJSON in, NDJSON out).
+// The request body is split into lines and cut into batches, so memory stays bounded no matter how big the
+// upload is. Every line is parsed on its own : a malformed one is REJECTED, it does not fail the lines around it.
+// Every batch is validated in memory, written with one unordered bulk insert, folded into the
+// MovieRating aggregates with one bulk upsert and answered with one outcome per input line, in input order.
+@Service
+@Slf4j
+public class ReviewBulkIngestService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final MovieRatingAggregator movieRatingAggregator;
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final List<ReviewWriteHook> writeHooks;
+    private final BlockingScheduler blockingScheduler;
+
+    @Autowired
+    public ReviewBulkIngestService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                   MovieRatingAggregator movieRatingAggregator,
+                                   ReviewEventPublisher reviewEventPublisher,
+                                   ObjectMapper objectMapper,
+                                   @Value("${review.bulk.batch-size:500}") int batchSize,
+                                   ObjectProvider<ReviewWriteHook> writeHooks,
+                                   BlockingScheduler blockingScheduler) {
+        this(reactiveMongoTemplate, movieRatingAggregator, reviewEventPublisher, objectMapper, batchSize,
+                writeHooks.orderedStream().toList(), blockingScheduler);
+    }
+
+    public ReviewBulkIngestService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                   MovieRatingAggregator movieRatingAggregator,
+                                   ReviewEventPublisher reviewEventPublisher,
+                                   ObjectMapper objectMapper,
+                                   int batchSize,
+                                   List<ReviewWriteHook> writeHooks,
+                                   BlockingScheduler blockingScheduler) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.movieRatingAggregator = movieRatingAggregator;
+        this.reviewEventPublisher = reviewEventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.writeHooks = writeHooks;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    // lines : the body split on new lines (blank ones are skipped and do not count in the index)
+    public Flux<ReviewIngestOutcome> ingest(Flux<String> lines) {
+        return lines
+                .filter(line -> !line.isBlank())
+                .index() // Tuple2<position in the body, line>
+                .buffer(batchSize)
+                .concatMap(this::ingestBatch); // one batch in flight keeps the outcomes in input order
+    }
+
+    private Flux<ReviewIngestOutcome> ingestBatch(List<Tuple2<Long, String>> batch) {
+        var outcomes = new ReviewIngestOutcome[batch.size()];
+        var valid = new ArrayList<Review>(batch.size());
+        var validPositions = new ArrayList<Integer>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            long index = batch.get(i).getT1();
+            Review review;
+            try {
+                review = objectMapper.readValue(batch.get(i).getT2(), Review.class);
+            } catch (JsonProcessingException e) {
+                outcomes[i] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.REJECTED, null, null, "malformed : " + e.getOriginalMessage());
+                continue;
+            }
+            if (review == null) {
+                // a JSON null line parses without an error, the other non-objects (arrays, scalars) fail above
+                outcomes[i] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.REJECTED, null, null, "malformed : not a JSON object");
+                continue;
+            }
+            String errorMessage = ReviewFieldValidator.validate(review);
+            if (errorMessage != null) {
+                outcomes[i] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.REJECTED, review.getReviewId(), review.getMovieInfoId(), errorMessage);
+                continue;
+            }
+            if (review.getReviewId() == null) {
+                // assign the id up front, so the outcome can report it without reading the documents back
+                review.setReviewId(new ObjectId().toHexString());
+            }
+            // a bulk insert does not initialise @Version like save() does, without it the next save() would insert again
+            review.setVersion(0L);
+            valid.add(review);
+            validPositions.add(i);
+        }
+
+        if (valid.isEmpty()) {
+            return Flux.fromArray(outcomes);
+        }
+
+        String[] writeErrors = new String[valid.size()]; // null => written
+        String[] writeConcernError = new String[1]; // null => every write without a write error is acknowledged
+        var written = new ArrayList<Review>(valid.size());
+        Mono<Void> insertAndPublish = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class)
+                .insert(valid)
+                .execute()
+                .then()
+                .onErrorResume(ex -> {
+                    writeConcernError[0] = collectWriteErrors(ex, writeErrors);
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(() -> {
+                    for (int v = 0; v < valid.size(); v++) {
+                        Review review = valid.get(v);
+                        int position = validPositions.get(v);
+                        long index = batch.get(position).getT1();
+                        if (writeErrors[v] == null && writeConcernError[0] == null) {
+                            written.add(review);
+                            outcomes[position] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.CREATED, review.getReviewId(), review.getMovieInfoId(), null);
+                        } else if (writeErrors[v] == null) {
+                            // no event and no aggregate update for it, like a single save failing on its write concern
+                            outcomes[position] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.UNKNOWN, review.getReviewId(), review.getMovieInfoId(), writeConcernError[0]);
+                        } else {
+                            outcomes[position] = new ReviewIngestOutcome(index, ReviewIngestOutcome.Status.FAILED, review.getReviewId(), review.getMovieInfoId(), writeErrors[v]);
+                        }
+                    }
+                    written.forEach(review -> reviewEventPublisher.publish(ReviewEventType.CREATED, review));
+                }));
+        // the movies of the batch are held while it is written, their events stay in the order of the writes
+        var movieInfoIds = valid.stream().map(Review::getMovieInfoId).toList();
+        return reviewEventPublisher.inMovieOrder(movieInfoIds, insertAndPublish)
+                .then(Mono.defer(() -> movieRatingAggregator.addAll(written)))
+                .then(Mono.defer(() -> afterWrite(written)))
+                .thenMany(Flux.defer(() -> Flux.fromArray(outcomes)));
+    }
+
+    // one hop to the blocking scheduler per batch, not per review ; without hooks (the default) none at all
+    private Mono<Void> afterWrite(List<Review> written) {
+        if (writeHooks.isEmpty() || written.isEmpty()) {
+            return Mono.empty();
+        }
+        return blockingScheduler.run(() -> written.forEach(review -> writeHooks.forEach(hook -> hook.saved(review))));
+    }
+
+    // unordered bulk writes report every failed document by its index in the batch. The others were written on the
+    // primary, but when the write concern failed too (the returned message) they may still be rolled back
+    private static String collectWriteErrors(Throwable ex, String[] writeErrors) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                bulkWriteException.getWriteErrors()
+                        .forEach(error -> writeErrors[error.getIndex()] = error.getMessage());
+                var writeConcernError = bulkWriteException.getWriteConcernError();
+                if (writeConcernError == null) {
+                    return null;
+                }
+                log.warn("Bulk insert written without its write concern : {}", writeConcernError.getMessage());
+                return "write concern : " + writeConcernError.getMessage();
+            }
+        }
+        log.error("Bulk insert failed : {}", ex.getMessage(), ex);
+        Arrays.fill(writeErrors, String.valueOf(ex.getMessage()));
+        return null;
+    }
+}
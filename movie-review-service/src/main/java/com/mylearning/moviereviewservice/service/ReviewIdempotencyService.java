@@ -0,0 +1,201 @@
+package com.mylearning.moviereviewservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mylearning.moviereviewservice.domain.IdempotencyRecord;
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.exception.IdempotencyConflictException;
+import com.mylearning.moviereviewservice.exception.IdempotencyKeyMismatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Makes POST /api/v1/review safe to retry when the client sends an Idempotency-Key header.
+// 1. recent keys are answered from a bounded in-memory LRU cache, no Mongo round trip at all
+// 2. otherwise the key is claimed by inserting an IdempotencyRecord, whose _id is the key; only one request can win
+// 3. the winner saves the review under the reviewId stored in the claim, the losers read that review back
+// The reviewId is fixed by the claim, so even a retry that takes over a claim (the first request failed, was cancelled
+// or is past its lease) cannot write a second document : its insert collides with the first one and replays it.
+// A claim is never released, only its lease is ended early. The key is bound to the body it was first used with,
+// the same key with another body is answered 422.
+@Service
+@Slf4j
+public class ReviewIdempotencyService {
+
+    // must not outlive the TTL index on IdempotencyRecord.createdAt
+    private static final Duration KEY_TTL = Duration.ofDays(1);
+
+    public record Submission(Review review, boolean replayed) {
+    }
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    // how long the request holding a claim is trusted to be writing, a retry waits that long at most
+    private final Duration lease;
+
+    private final Map<String, CachedReview> recentKeys;
+
+    public ReviewIdempotencyService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${review.idempotency.cache-size:10000}") int cacheSize,
+                                    @Value("${review.idempotency.lease:30s}") Duration lease) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.objectMapper = objectMapper;
+        this.lease = lease;
+        // access ordered LinkedHashMap => evicts the least recently used key once cacheSize is reached
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReview> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public Mono<Submission> submit(String key, Review review, Function<Review, Mono<Review>> save) {
+        String requestHash = requestHash(review);
+        CachedReview cached = cached(key);
+        if (cached != null) {
+            return cached.requestHash().equals(requestHash)
+                    ? Mono.just(new Submission(cached.review(), true))
+                    : Mono.error(mismatch(key));
+        }
+
+        if (review.getReviewId() == null) {
+            review.setReviewId(new ObjectId().toHexString());
+        }
+        Instant now = Instant.now();
+        var claim = new IdempotencyRecord(key, review.getReviewId(), requestHash, now.plus(lease), false, now);
+
+        return reactiveMongoTemplate.insert(claim)
+                .map(inserted -> true)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false))
+                .flatMap(claimed -> claimed ? write(claim, review, save, false) : replay(key, requestHash, review, save));
+    }
+
+    // takenOver : an earlier holder of the claim may have written the review after all
+    private Mono<Submission> write(IdempotencyRecord claim, Review review, Function<Review, Mono<Review>> save, boolean takenOver) {
+        review.setReviewId(claim.getReviewId());
+        return save.apply(review)
+                .flatMap(savedReview -> markCommitted(claim).thenReturn(new Submission(savedReview, false)))
+                // the insert of the earlier holder landed after all : that is the review of this key
+                .onErrorResume(ex -> takenOver && ex instanceof DuplicateKeyException, ex -> reactiveMongoTemplate.findById(claim.getReviewId(), Review.class)
+                        .flatMap(savedReview -> markCommitted(claim).thenReturn(new Submission(savedReview, true)))
+                        .switchIfEmpty(Mono.error(ex)))
+                .doOnNext(submission -> cache(claim.getKey(), claim.getRequestHash(), submission.review()))
+                // the review may or may not be written, a retry takes over right away and finds out
+                .onErrorResume(ex -> endLease(claim).then(Mono.error(ex)))
+                .doOnCancel(() -> endLease(claim).subscribe());
+    }
+
+    private Mono<Submission> replay(String key, String requestHash, Review review, Function<Review, Mono<Review>> save) {
+        return reactiveMongoTemplate.findById(key, IdempotencyRecord.class)
+                .switchIfEmpty(Mono.error(() -> new IdempotencyConflictException(
+                        "The request with the Idempotency-Key " + key + " expired while it was retried, please retry")))
+                .flatMap(claim -> {
+                    if (claim.getRequestHash() == null) {
+                        claim.setRequestHash(requestHash); // claimed before the bodies were fingerprinted
+                    } else if (!claim.getRequestHash().equals(requestHash)) {
+                        return Mono.error(mismatch(key));
+                    }
+                    return reactiveMongoTemplate.findById(claim.getReviewId(), Review.class)
+                            .doOnNext(savedReview -> cache(key, requestHash, savedReview))
+                            .map(savedReview -> new Submission(savedReview, true))
+                            .switchIfEmpty(Mono.defer(() -> takeOver(claim, review, save)));
+                });
+    }
+
+    // no review under the claim yet : still being written, or the holder is gone and its lease is over
+    private Mono<Submission> takeOver(IdempotencyRecord claim, Review review, Function<Review, Mono<Review>> save) {
+        if (claim.isCommitted()) {
+            return Mono.error(new IdempotencyConflictException(
+                    "The request with the Idempotency-Key " + claim.getKey() + " was processed, its review no longer exists"));
+        }
+        Instant now = Instant.now();
+        if (claim.getLeaseUntil() != null && claim.getLeaseUntil().isAfter(now)) {
+            return Mono.error(inProgress(claim.getKey()));
+        }
+        // compare and set on the lease the claim was read with : of several retries only one takes over
+        var query = Query.query(Criteria.where("_id").is(claim.getKey()).and("leaseUntil").is(claim.getLeaseUntil()));
+        return reactiveMongoTemplate.updateFirst(query, Update.update("leaseUntil", now.plus(lease)), IdempotencyRecord.class)
+                .flatMap(result -> result.getModifiedCount() == 1
+                        ? write(claim, review, save, true)
+                        : Mono.error(inProgress(claim.getKey())));
+    }
+
+    private Mono<Void> markCommitted(IdempotencyRecord claim) {
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(claim.getKey())),
+                        Update.update("committed", true), IdempotencyRecord.class)
+                .then()
+                // the review is written, that is what the client asked for : a retry finds it without the flag too
+                .onErrorResume(ex -> {
+                    log.warn("Idempotency-Key {} : the review is written, marking the claim failed : {}", claim.getKey(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> endLease(IdempotencyRecord claim) {
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(claim.getKey())),
+                        Update.update("leaseUntil", Instant.now()), IdempotencyRecord.class)
+                .then()
+                // the lease then runs out by itself
+                .onErrorResume(ex -> {
+                    log.warn("Idempotency-Key {} : ending the lease failed : {}", claim.getKey(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static IdempotencyConflictException inProgress(String key) {
+        return new IdempotencyConflictException("A request with the Idempotency-Key " + key + " is still in progress");
+    }
+
+    private static IdempotencyKeyMismatchException mismatch(String key) {
+        return new IdempotencyKeyMismatchException("The Idempotency-Key " + key + " was already used with another request body");
+    }
+
+    // SHA-256 of the body as it was sent, before a reviewId is assigned
+    private String requestHash(Review review) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(review)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint the review", e);
+        }
+    }
+
+    private CachedReview cached(String key) {
+        CachedReview cachedReview;
+        synchronized (recentKeys) {
+            cachedReview = recentKeys.get(key);
+        }
+        if (cachedReview == null || cachedReview.expiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        return cachedReview;
+    }
+
+    private void cache(String key, String requestHash, Review review) {
+        synchronized (recentKeys) {
+            recentKeys.put(key, new CachedReview(review, requestHash, Instant.now().plus(KEY_TTL)));
+        }
+    }
+
+    private record CachedReview(Review review, String requestHash, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.mylearning.moviereviewservice.service;
+
+import com.mylearning.moviereviewservice.domain.Review;
+
+// For deployments that have to copy review writes into a blocking system (a JDBC table, a legacy SDK).
+// Every ReviewWriteHook bean is called by ReviewHandler and ReviewBulkIngestService once Mongo acknowledged the
+// write, always on the BlockingScheduler, so an implementation may block. A bulk batch calls saved() once per
+// written review. A hook that throws fails the request, the Mongo write stays.
+public interface ReviewWriteHook {
+
+    void saved(Review review);
+
+    void deleted(Review review);
+}
@@ -0,0 +1,174 @@
+package com.mylearning.moviereviewservice.service;
+
+import com.mylearning.moviereviewservice.domain.TrendingMovie;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// "Trending now", computed in memory from the CREATED review events instead of aggregating in Mongo.
+// The sliding window (default 15m) is a ring of buckets (default 1m); each bucket keeps per movie tallies and
+// the window totals are updated incrementally when a review arrives or a bucket falls out of the window.
+// Every refresh interval the top-K movies are picked with a bounded min-heap and published as an immutable
+// snapshot, so reads are a volatile read of a ready made list.
+// never lazy (the startup profile) : it has to be listening before the first review is written, not created with it
+@Service
+@Lazy(false)
+@Slf4j
+public class TrendingMoviesService {
+
+    private static final Comparator<TrendingMovie> BY_ACTIVITY = Comparator
+            .comparingLong(TrendingMovie::getReviewCount)
+            .thenComparing(TrendingMovie::getAverageRating, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TrendingMovie::getMovieInfoId, Comparator.reverseOrder());
+
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final int topK;
+    private final Duration refreshInterval;
+
+    private final Map<Long, Tally> window = new HashMap<>(); // guarded by this
+    private volatile List<TrendingMovie> trending = List.of();
+    private Disposable subscription;
+
+    public TrendingMoviesService(ReviewEventPublisher reviewEventPublisher,
+                                 @Value("${review.trending.window:15m}") Duration windowSize,
+                                 @Value("${review.trending.bucket:1m}") Duration bucketSize,
+                                 @Value("${review.trending.top:10}") int topK,
+                                 @Value("${review.trending.refresh-interval:1s}") Duration refreshInterval) {
+        this.reviewEventPublisher = reviewEventPublisher;
+        this.bucketMillis = bucketSize.toMillis();
+        this.buckets = new Bucket[(int) Math.max(1, windowSize.toMillis() / bucketMillis)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.topK = topK;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.merge(
+                        reviewEventPublisher.asFlux()
+                                .filter(event -> event.getEventType() == ReviewEventType.CREATED)
+                                .doOnNext(this::record),
+                        Flux.interval(refreshInterval)
+                                .doOnNext(tick -> refresh(Instant.now())))
+                .onErrorContinue((ex, value) -> log.error("Unable to update trending movies : {}", ex.getMessage(), ex))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public List<TrendingMovie> trending() {
+        return trending;
+    }
+
+    public synchronized void record(ReviewEvent event) {
+        if (event.getMovieInfoId() == null || event.getTimestamp() == null) {
+            return;
+        }
+        long epoch = event.getTimestamp().toEpochMilli() / bucketMillis;
+        long newest = expire(epoch);
+        if (epoch <= newest - buckets.length) {
+            return; // older than the window
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        bucket.epoch = epoch; // any older occupant was cleared by expire()
+        Double rating = event.getReview() == null ? null : event.getReview().getRating();
+        bucket.tallies.computeIfAbsent(event.getMovieInfoId(), id -> new Tally()).add(rating, 1);
+        window.computeIfAbsent(event.getMovieInfoId(), id -> new Tally()).add(rating, 1);
+    }
+
+    public synchronized void refresh(Instant now) {
+        expire(now.toEpochMilli() / bucketMillis);
+
+        var heap = new PriorityQueue<>(topK + 1, BY_ACTIVITY);
+        window.forEach((movieInfoId, tally) -> {
+            heap.offer(new TrendingMovie(movieInfoId, tally.count, tally.averageRating()));
+            if (heap.size() > topK) {
+                heap.poll(); // drop the least active, the heap never holds more than topK + 1 movies
+            }
+        });
+        var top = new ArrayList<TrendingMovie>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(heap.poll());
+        }
+        top.sort(BY_ACTIVITY.reversed());
+        trending = List.copyOf(top);
+    }
+
+    // clears the buckets that fell out of the window ending at epoch and returns the newest bucket epoch seen so far
+    private long expire(long epoch) {
+        long newest = epoch;
+        for (Bucket bucket : buckets) {
+            newest = Math.max(newest, bucket.epoch);
+        }
+        for (Bucket bucket : buckets) {
+            if (bucket.epoch != Long.MIN_VALUE && bucket.epoch <= newest - buckets.length) {
+                bucket.tallies.forEach((movieInfoId, tally) -> {
+                    Tally total = window.get(movieInfoId);
+                    if (total != null && total.subtract(tally)) {
+                        window.remove(movieInfoId);
+                    }
+                });
+                bucket.tallies.clear();
+                bucket.epoch = Long.MIN_VALUE;
+            }
+        }
+        return newest;
+    }
+
+    private static final class Bucket {
+        private long epoch = Long.MIN_VALUE;
+        private final Map<Long, Tally> tallies = new HashMap<>();
+    }
+
+    private static final class Tally {
+        private long count;
+        private long ratedCount;
+        private double ratingSum;
+
+        private void add(Double rating, int sign) {
+            count += sign;
+            if (rating != null) {
+                ratedCount += sign;
+                ratingSum += sign * rating;
+            }
+        }
+
+        // returns true when nothing is left
+        private boolean subtract(Tally other) {
+            count -= other.count;
+            ratedCount -= other.ratedCount;
+            ratingSum -= other.ratingSum;
+            return count <= 0;
+        }
+
+        private Double averageRating() {
+            return ratedCount == 0 ? null : ratingSum / ratedCount;
+        }
+    }
+}
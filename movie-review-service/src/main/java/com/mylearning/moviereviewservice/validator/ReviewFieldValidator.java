@@ -0,0 +1,34 @@
+package com.mylearning.moviereviewservice.validator;
+
+import com.mylearning.moviereviewservice.domain.Review;
+
+// Hand written version of the Bean Validation constraints on Review, used on the write paths.
+// jakarta.validation.Validator walks the constraint metadata reflectively and builds a Set<ConstraintViolation>
+// for every call; this is two field checks, and the error strings are constants, so a valid review allocates nothing.
+// The messages (and their sorted, comma joined order) are the same as the ones validate2 produces.
+public final class ReviewFieldValidator {
+
+    public static final String MOVIE_INFO_ID_NULL = "rating.movieInfoId : must not be null";
+    public static final String RATING_NEGATIVE = "rating.negative : please pass a non-negative value";
+
+    // already in sorted order, "rating.m..." < "rating.n..."
+    private static final String MOVIE_INFO_ID_NULL_AND_RATING_NEGATIVE = MOVIE_INFO_ID_NULL + "," + RATING_NEGATIVE;
+
+    private ReviewFieldValidator() {
+    }
+
+    // returns null when the review is valid, otherwise the error message
+    public static String validate(Review review) {
+        boolean movieInfoIdNull = review.getMovieInfoId() == null;
+        // same edge cases as @PositiveOrZero : -0.0 and NaN are rejected
+        boolean ratingNegative = review.getRating() != null
+                && (Double.compare(review.getRating(), 0.0) < 0 || Double.isNaN(review.getRating()));
+        if (!movieInfoIdNull && !ratingNegative) {
+            return null;
+        }
+        if (movieInfoIdNull) {
+            return ratingNegative ? MOVIE_INFO_ID_NULL_AND_RATING_NEGATIVE : MOVIE_INFO_ID_NULL;
+        }
+        return RATING_NEGATIVE;
+    }
+}
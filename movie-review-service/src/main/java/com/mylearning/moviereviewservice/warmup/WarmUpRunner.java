@@ -0,0 +1,85 @@
+package com.mylearning.moviereviewservice.warmup;
+
+import com.mylearning.moviecommons.warmup.WarmUpDriver;
+import com.mylearning.moviecommons.warmup.WarmUpReport;
+import com.mylearning.moviecontracts.ReviewApi;
+import com.mylearning.moviereviewservice.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+
+// Opt-in JIT warm-up (warmup.enabled) : right after a deploy the router, the handler, the codecs and the Mongo driver
+// run interpreted, the first thousands of real requests pay for it in p99. This runs warmup.iterations rounds of
+// synthetic traffic first, while the readiness probe still says REFUSING_TRAFFIC : Spring Boot only publishes
+// ACCEPTING_TRAFFIC once the ApplicationReadyEvent listeners returned, and this one blocks until the budget (or
+// max-duration) is spent. Every round (WarmUpDriver) :
+//  - the review search for a movieInfoId that does not exist (negative), in JSON and Smile : routing, the rate limiter
+//    filter, the query against Mongo and the 404 the handler answers itself. Nothing is written : a POST would count
+//    against the rate limit and leave reviews behind.
+//  - the trending movies, served from memory
+//  - the server's own JSON / Smile codecs encoding and decoding a synthetic Review and List<Review>
+// Paths answered through GlobalErrorHandler are left out, they would show up in review.errors.
+// The requests carry X-Warm-Up, StartupTimingReport leaves them out. The p99 of the first and last tenth of the
+// requests is logged, the difference is what the real traffic does not pay anymore.
+@Component
+@Slf4j
+public class WarmUpRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String SEARCH = ReviewApi.SEARCH_URL + "?" + ReviewApi.MOVIE_INFO_ID + "={movieInfoId}";
+
+    private final boolean enabled;
+    private final WebClient.Builder webClientBuilder;
+    private final WarmUpDriver warmUpDriver;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(@Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:2000}") int iterations,
+                        @Value("${warmup.concurrency:4}") int concurrency,
+                        @Value("${warmup.max-duration:60s}") Duration maxDuration,
+                        WebClient.Builder webClientBuilder,
+                        ServerCodecConfigurer serverCodecConfigurer) {
+        this.enabled = enabled;
+        this.webClientBuilder = webClientBuilder;
+        this.warmUpDriver = new WarmUpDriver(iterations, concurrency, maxDuration, serverCodecConfigurer);
+    }
+
+    // null until a warm-up ran
+    public WarmUpReport report() {
+        return report;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        WebClient webClient = WarmUpDriver.localWebClient(webClientBuilder, context);
+        List<IntFunction<Mono<?>>> calls = List.of(
+                i -> WarmUpDriver.get(webClient, MediaType.APPLICATION_JSON, SEARCH, -(i + 1)),
+                i -> WarmUpDriver.get(webClient, SMILE, SEARCH, -(i + 1)),
+                i -> WarmUpDriver.get(webClient, MediaType.APPLICATION_JSON, ReviewApi.BASE + "/trending"),
+                i -> warmUpDriver.codecs(ResolvableType.forClass(Review.class), review(i)),
+                i -> warmUpDriver.codecs(ResolvableType.forClassWithGenerics(List.class, Review.class), List.of(review(i), review(i + 1))));
+        report = warmUpDriver.run(calls);
+        log.info("Warm-up : {}", report);
+    }
+
+    private static Review review(int i) {
+        return new Review("warm-up-" + i, (long) -(i + 1), "Awesome Movie " + i, 9.0);
+    }
+}
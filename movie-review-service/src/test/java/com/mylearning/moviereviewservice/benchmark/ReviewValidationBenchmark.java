@@ -0,0 +1,64 @@
+package com.mylearning.moviereviewservice.benchmark;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.validator.ReviewFieldValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bean Validation (validate2) vs the hand written ReviewFieldValidator (validate3), for a valid and an invalid review.
+// Run with the gc profiler to see the allocation per call:
+// mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ReviewValidationBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewValidationBenchmark {
+
+    private Validator validator;
+    private Review valid;
+    private Review invalid;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        valid = new Review(null, 1L, "Awesome Movie", 9.0);
+        invalid = new Review(null, null, "Awesome Movie", -9.0);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Review>> beanValidation_valid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Review>> beanValidation_invalid() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public String fieldValidator_valid() {
+        return ReviewFieldValidator.validate(valid);
+    }
+
+    @Benchmark
+    public String fieldValidator_invalid() {
+        return ReviewFieldValidator.validate(invalid);
+    }
+}
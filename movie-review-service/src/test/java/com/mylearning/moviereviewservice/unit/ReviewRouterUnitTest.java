@@ -1,38 +1,91 @@
 package com.mylearning.moviereviewservice.unit;
 
+import com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration;
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecommons.stream.StreamHeartbeats;
+import com.mylearning.moviecommons.tracing.SignalTracer;
 import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.domain.ReviewIngestOutcome;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
 import com.mylearning.moviereviewservice.exceptionhandler.GlobalErrorHandler;
+import com.mylearning.moviereviewservice.filter.ReviewRateLimiter;
 import com.mylearning.moviereviewservice.handler.ReviewHandler;
 import com.mylearning.moviereviewservice.repository.ReviewRepository;
 import com.mylearning.moviereviewservice.router.ReviewRouter;
+import com.mylearning.moviereviewservice.service.MovieRatingAggregator;
+import com.mylearning.moviereviewservice.service.ReviewBulkIngestService;
+import com.mylearning.moviereviewservice.service.ReviewIdempotencyService;
+import com.mylearning.moviereviewservice.service.ReviewWriteHook;
+import com.mylearning.moviereviewservice.service.TrendingMoviesService;
 import com.mylearning.moviereviewservice.validator.ReviewValidator;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-@WebFluxTest
-@ContextConfiguration(classes = {ReviewRouter.class, ReviewHandler.class, ReviewValidator.class, GlobalErrorHandler.class})
+@WebFluxTest(properties = "streams.drain.window=100ms")
+@ContextConfiguration(classes = {ReviewRouter.class, SmileCodecAutoConfiguration.class, ReviewHandler.class, BlockingScheduler.class, StreamDrain.class, StreamHeartbeats.class, ReviewRateLimiter.class, ReviewTopicRegistry.class, ReviewEventPublisher.class, TrendingMoviesService.class, SignalTracer.class, ReviewValidator.class, GlobalErrorHandler.class})
 @AutoConfigureWebTestClient
 public class ReviewRouterUnitTest {
 
     @MockitoBean
     private ReviewRepository reviewRepository;
 
+    @MockitoBean
+    private MovieRatingAggregator movieRatingAggregator;
+
+    @MockitoBean
+    private ReviewBulkIngestService reviewBulkIngestService;
+
+    @MockitoBean
+    private ReviewIdempotencyService reviewIdempotencyService;
+
+    @MockitoBean
+    private ReviewWriteHook reviewWriteHook;
+
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ReviewEventPublisher reviewEventPublisher;
+
+    @Autowired
+    private StreamDrain streamDrain;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(movieRatingAggregator.addAll(Mockito.any())).thenReturn(Mono.empty());
+        Mockito.when(movieRatingAggregator.replace(Mockito.any(), Mockito.any())).thenReturn(Mono.empty());
+        Mockito.when(movieRatingAggregator.remove(Mockito.any())).thenReturn(Mono.empty());
+    }
+
 
     @Test
     void addReview() {
@@ -58,6 +111,31 @@ public class ReviewRouterUnitTest {
                 });
     }
 
+    // the hook sleeps like a JDBC call would, BlockHound fails the request if it runs on a non-blocking thread
+    @Test
+    void addReview_writeHookOnTheBlockingScheduler() {
+
+        //given
+        var hookThread = new AtomicReference<String>();
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(5);
+            hookThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(reviewWriteHook).saved(Mockito.any(Review.class));
+        Mockito.when(reviewRepository.save(Mockito.any(Review.class))).thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+
+        //when
+        webTestClient
+                .post()
+                .uri("/api/v1/review")
+                .bodyValue(new Review(null, 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus().isCreated();
+
+        //then
+        Mockito.verify(reviewWriteHook).saved(Mockito.argThat(review -> "abc".equals(review.getReviewId())));
+        Assertions.assertThat(hookThread.get()).startsWith("blocking");
+    }
 
     @Test
     void getAllReviews1() {
@@ -215,4 +293,300 @@ public class ReviewRouterUnitTest {
     }
 
 
+    @Test
+    void getReviewByMovieInfoId_topN() {
+
+        //given
+        var reviewList = List.of(
+                new Review("2", 1L, "Awesome Movie1", 9.5),
+                new Review("1", 1L, "Awesome Movie", 9.0));
+
+        Mockito.when(reviewRepository.findReviewsByMovieInfoIdAndRatingGreaterThanEqual(
+                        Mockito.eq(1L), Mockito.eq(8.0), Mockito.any(Sort.class), Mockito.eq(Limit.of(2))))
+                .thenReturn(Flux.fromIterable(reviewList));
+
+        //when
+        webTestClient
+                .get()
+                .uri("/api/v1/review/search?movieInfoId=1&sort=rating&limit=2&minRating=8")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Review.class)
+                .isEqualTo(reviewList);
+
+        Mockito.verify(reviewRepository, Mockito.never()).findReviewsByMovieInfoId(Mockito.anyLong());
+    }
+
+    @Test
+    void getReviewByMovieInfoId_eTag() {
+
+        //given
+        var reviewList = List.of(
+                new Review("1", 1L, "Awesome Movie", 9.0, 0L),
+                new Review("2", 1L, "Excellent Movie", 8.0, 5L));
+
+        Mockito.when(reviewRepository.findReviewsByMovieInfoId(1L)).thenReturn(Flux.fromIterable(reviewList));
+
+        //when
+        var eTag = webTestClient
+                .get()
+                .uri("/api/v1/review/search?movieInfoId=1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .valueEquals(HttpHeaders.VARY, "Accept, Accept-Encoding")
+                .expectBodyList(Review.class)
+                .hasSize(2)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        //then
+        webTestClient
+                .get()
+                .uri("/api/v1/review/search?movieInfoId=1")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+
+        // the search ran once per request
+        Mockito.verify(reviewRepository, Mockito.times(2)).findReviewsByMovieInfoId(1L);
+    }
+
+    @Test
+    void getReview_eTag() {
+
+        //given
+        Mockito.when(reviewRepository.findById("abc")).thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0, 2L)));
+
+        //when
+        webTestClient
+                .get()
+                .uri("/api/v1/review/{id}", "abc")
+                .ifNoneMatch("W/\"abc-2\"")
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectHeader()
+                .valueEquals(HttpHeaders.ETAG, "W/\"abc-2\"");
+    }
+
+    // what movie-service's ReviewRestClient asks for : Smile first, JSON if it must
+    @Test
+    void getReviewByMovieInfoId_smile() {
+
+        //given
+        var reviewList = List.of(
+                new Review("1", 1L, "Awesome Movie", 9.0),
+                new Review("2", 1L, "Excellent Movie", 8.0));
+
+        Mockito.when(reviewRepository.findReviewsByMovieInfoId(1L)).thenReturn(Flux.fromIterable(reviewList));
+
+        //when
+        webTestClient
+                .get()
+                .uri("/api/v1/review/search?movieInfoId=1")
+                .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(new MediaType("application", "x-jackson-smile"))
+                .expectBodyList(Review.class)
+                .isEqualTo(reviewList);
+    }
+
+    @Test
+    void getReviewByMovieInfoId_invalidLimit() {
+
+        webTestClient
+                .get()
+                .uri("/api/v1/review/search?movieInfoId=1&limit=0")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("limit must be between 1 and 100");
+    }
+
+
+    @Test
+    void bulkAddReviews() {
+
+        //given
+        var outcomes = List.of(
+                new ReviewIngestOutcome(0, ReviewIngestOutcome.Status.CREATED, "abc", 1L, null),
+                new ReviewIngestOutcome(1, ReviewIngestOutcome.Status.REJECTED, null, null, "rating.movieInfoId : must not be null"));
+
+        var lines = new ArrayList<String>();
+        Mockito.when(reviewBulkIngestService.ingest(Mockito.any())).thenAnswer(invocation -> invocation.<Flux<String>>getArgument(0)
+                .doOnNext(lines::add)
+                .thenMany(Flux.fromIterable(outcomes)));
+
+        //when
+        webTestClient
+                .post()
+                .uri("/api/v1/review/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}\n{\"comment\":\"Awesome Movie\"}\n")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(ReviewIngestOutcome.class)
+                .isEqualTo(outcomes);
+
+        // the body reaches the service one line at a time, undecoded
+        Assertions.assertThat(lines).containsExactly("{\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}", "{\"comment\":\"Awesome Movie\"}");
+    }
+
+
+    @Test
+    void addReview_idempotencyKeyReplay() {
+
+        //given
+        var review = new Review(null, 1L, "Awesome Movie", 9.0);
+
+        Mockito.when(reviewIdempotencyService.submit(Mockito.eq("key-1"), Mockito.any(Review.class), Mockito.any()))
+                .thenReturn(Mono.just(new ReviewIdempotencyService.Submission(new Review("abc", 1L, "Awesome Movie", 9.0), true)));
+
+        //when
+        webTestClient
+                .post()
+                .uri("/api/v1/review")
+                .header(ReviewHandler.IDEMPOTENCY_KEY, "key-1")
+                .bodyValue(review)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(ReviewHandler.IDEMPOTENT_REPLAYED, "true")
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> assertEquals("abc", reviewResponse.getResponseBody().getReviewId()));
+
+        Mockito.verify(reviewRepository, Mockito.never()).save(Mockito.any(Review.class));
+    }
+
+
+    @Test
+    void getReview_problemJson() {
+
+        // Given
+        Mockito.when(reviewRepository.findById((String) Mockito.any())).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .get()
+                .uri("/api/v1/review/{id}", "abc")
+                .accept(MediaType.APPLICATION_PROBLEM_JSON)
+                .exchange()
+                .expectStatus()
+                .isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.title").isEqualTo("Not Found")
+                .jsonPath("$.detail").isEqualTo("Review not Found for the given Review Id: abc");
+    }
+
+    // the Accept header is negotiated by quality, not searched for "application/json"
+    @Test
+    void getReview_errorFollowsAcceptQuality() {
+
+        // Given
+        Mockito.when(reviewRepository.findById((String) Mockito.any())).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .get()
+                .uri("/api/v1/review/{id}", "abc")
+                .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON);
+
+        webTestClient
+                .get()
+                .uri("/api/v1/review/{id}", "abc")
+                .header(HttpHeaders.ACCEPT, "application/json;q=0, text/plain")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+                .expectBody(String.class)
+                .isEqualTo("Review not Found for the given Review Id: abc");
+    }
+
+    // Review has a @Version : save() of a review with the id of an existing one and no version is an insert, not an upsert
+    @Test
+    void addReview_existingReviewId_conflict() {
+
+        //given
+        Mockito.when(reviewRepository.save(Mockito.any(Review.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error collection: test.review index: _id_")));
+
+        //when
+        webTestClient
+                .post()
+                .uri("/api/v1/review")
+                .accept(MediaType.TEXT_PLAIN)
+                .bodyValue(new Review("abc", 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(String.class)
+                .isEqualTo("A review with this reviewId already exists");
+    }
+
+    @Test
+    void addReview_nullExceptionMessage() {
+
+        //given
+        Mockito.when(reviewRepository.save(Mockito.any(Review.class))).thenReturn(Mono.error(new IllegalStateException()));
+
+        //when
+        webTestClient
+                .post()
+                .uri("/api/v1/review")
+                .bodyValue(new Review(null, 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .is5xxServerError()
+                .expectBody(String.class)
+                .isEqualTo("Internal Server Error");
+    }
+
+    // on shutdown the open stream ends with a DRAINING line carrying the reconnect hint, the next subscriber is refused
+    @Test
+    @DirtiesContext // the StreamDrain of this context stays draining
+    void getReviewsStream_drained() {
+        reviewEventPublisher.publish(ReviewEventType.CREATED, new Review("abc", 1L, "Awesome Movie", 9.0));
+
+        var events = webTestClient.get()
+                .uri("/api/v1/review/sinks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReviewEvent.class)
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(event -> assertEquals("abc", event.getReviewId()))
+                .then(() -> streamDrain.stop(() -> {
+                }))
+                .assertNext(event -> {
+                    assertEquals(ReviewEventType.DRAINING, event.getEventType());
+                    Assertions.assertThat(event.getReconnectAfterMillis()).isBetween(1000L, 5000L);
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        webTestClient.get()
+                .uri("/api/v1/review/sinks/1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+    }
 }
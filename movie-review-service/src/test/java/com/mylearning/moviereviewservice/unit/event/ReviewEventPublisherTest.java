@@ -0,0 +1,93 @@
+package com.mylearning.moviereviewservice.unit.event;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewEventPublisherTest {
+
+    private final ReviewEventPublisher reviewEventPublisher = new ReviewEventPublisher(new ReviewTopicRegistry());
+
+    @Test
+    void publish_concurrentWritesKeepSequenceOrder() {
+
+        var events = reviewEventPublisher.asFlux()
+                .take(1000)
+                .map(ReviewEvent::getSequence)
+                .collectList();
+
+        StepVerifier.create(events)
+                .then(() -> Flux.range(0, 1000)
+                        .parallel(8)
+                        .runOn(Schedulers.parallel())
+                        .doOnNext(i -> reviewEventPublisher.publish(ReviewEventType.CREATED,
+                                new Review(String.valueOf(i), (long) (i % 3), "Awesome Movie", 9.0)))
+                        .sequential()
+                        .blockLast())
+                .assertNext(sequences -> {
+                    assertEquals(1000, sequences.size());
+                    for (int i = 0; i < sequences.size(); i++) {
+                        assertEquals(i + 1, sequences.get(i));
+                    }
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void publish_carriesEventTypeAndReviewId() {
+
+        var review = new Review("abc", 1L, "Awesome Movie", 9.0);
+
+        var event = reviewEventPublisher.publish(ReviewEventType.DELETED, review);
+
+        assertEquals(ReviewEventType.DELETED, event.getEventType());
+        assertEquals("abc", event.getReviewId());
+        assertEquals(List.of(event), reviewEventPublisher.asFlux().take(1).collectList().block());
+    }
+
+    @Test
+    void inMovieOrder_holdsLaterWriteOfSameMovieOnly() {
+
+        Sinks.Empty<Void> firstWrite = Sinks.empty();
+        var secondStarted = new boolean[1];
+        var otherMovieStarted = new boolean[1];
+
+        var first = reviewEventPublisher.inMovieOrder(List.of(1L), firstWrite.asMono()).subscribe();
+        var second = reviewEventPublisher.inMovieOrder(List.of(1L), Mono.fromRunnable(() -> secondStarted[0] = true)).subscribe();
+        reviewEventPublisher.inMovieOrder(List.of(2L), Mono.fromRunnable(() -> otherMovieStarted[0] = true)).subscribe();
+
+        assertFalse(secondStarted[0]);
+        assertTrue(otherMovieStarted[0]);
+
+        firstWrite.tryEmitEmpty();
+
+        assertTrue(secondStarted[0]);
+        assertTrue(first.isDisposed());
+        assertTrue(second.isDisposed());
+    }
+
+    @Test
+    void inMovieOrder_failedWriteReleasesTheMovie() {
+
+        StepVerifier.create(reviewEventPublisher.inMovieOrder(List.of(1L), Mono.error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+
+        StepVerifier.create(reviewEventPublisher.inMovieOrder(List.of(1L), Mono.just("written")))
+                .expectNext("written")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,49 @@
+package com.mylearning.moviereviewservice.unit.event;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewTopicRegistryTest {
+
+    private final ReviewTopicRegistry reviewTopicRegistry = new ReviewTopicRegistry();
+
+    @Test
+    void subscribe_onlyReceivesOwnMovie() {
+
+        var review1 = event(1, new Review("1", 1L, "Awesome Movie", 9.0));
+        var review2 = event(2, new Review("2", 2L, "Excellent Movie", 8.0));
+
+        StepVerifier.create(reviewTopicRegistry.subscribe(1L).take(1))
+                .then(() -> {
+                    reviewTopicRegistry.publish(review2);
+                    reviewTopicRegistry.publish(review1);
+                })
+                .expectNext(review1)
+                .verifyComplete();
+    }
+
+    @Test
+    void subscribe_topicReclaimedAfterLastSubscriber() {
+
+        assertEquals(0, reviewTopicRegistry.topicCount());
+
+        StepVerifier.create(reviewTopicRegistry.subscribe(1L))
+                .then(() -> assertEquals(1, reviewTopicRegistry.topicCount()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, reviewTopicRegistry.topicCount());
+    }
+
+    private static ReviewEvent event(long sequence, Review review) {
+        return new ReviewEvent(sequence, ReviewEventType.CREATED, review.getReviewId(), review.getMovieInfoId(), review, Instant.now());
+    }
+}
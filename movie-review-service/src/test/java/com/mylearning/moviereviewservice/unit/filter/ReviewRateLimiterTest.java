@@ -0,0 +1,116 @@
+package com.mylearning.moviereviewservice.unit.filter;
+
+import com.mylearning.moviereviewservice.filter.ReviewRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // burst of 3, then one request per second ; bulk : burst of 1, then one every 10 seconds ; 3 clients
+    private final ReviewRateLimiter reviewRateLimiter = new ReviewRateLimiter(3, 1.0, 1, 0.1, 3, now::get, meterRegistry);
+
+    @Test
+    void tryAcquire_burstThenRefill() {
+
+        assertEquals(0, reviewRateLimiter.tryAcquire("partner-a"));
+        assertEquals(0, reviewRateLimiter.tryAcquire("partner-a"));
+        assertEquals(0, reviewRateLimiter.tryAcquire("partner-a"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), reviewRateLimiter.tryAcquire("partner-a"));
+
+        // other clients have their own bucket
+        assertEquals(0, reviewRateLimiter.tryAcquire("partner-b"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, reviewRateLimiter.tryAcquire("partner-a"));
+        assertTrue(reviewRateLimiter.tryAcquire("partner-a") > 0);
+    }
+
+    @Test
+    void filter_rejectsWritesWith429AndRetryAfter() {
+
+        var webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .POST("/api/v1/review", request -> ServerResponse.status(HttpStatus.CREATED).build())
+                        .GET("/api/v1/review", request -> ServerResponse.ok().build())
+                        .filter(reviewRateLimiter)
+                        .build())
+                .build();
+
+        // a new client id per request does not get a new bucket, the client is its address
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/api/v1/review").header("X-Client-Id", "partner-" + i)
+                    .exchange().expectStatus().isCreated();
+        }
+
+        webTestClient.post().uri("/api/v1/review").header("X-Client-Id", "partner-3")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody(String.class).isEqualTo("Too many requests, retry after 1 seconds");
+
+        // reads are not limited
+        webTestClient.get().uri("/api/v1/review")
+                .exchange().expectStatus().isOk();
+
+        assertEquals(Map.of("unknown", 1L), reviewRateLimiter.rejections());
+        assertEquals(1.0, meterRegistry.get("review.ratelimit.rejected").tag("client", "unknown").functionCounter().count());
+    }
+
+    @Test
+    void filter_bulkHasItsOwnBucket() {
+
+        var webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .POST("/api/v1/review/bulk", request -> ServerResponse.ok().build())
+                        .POST("/api/v1/review", request -> ServerResponse.status(HttpStatus.CREATED).build())
+                        .filter(reviewRateLimiter)
+                        .build())
+                .build();
+
+        webTestClient.post().uri("/api/v1/review/bulk").exchange().expectStatus().isOk();
+        webTestClient.post().uri("/api/v1/review/bulk")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "10");
+
+        // the single writes still have their whole burst
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/api/v1/review").exchange().expectStatus().isCreated();
+        }
+    }
+
+    @Test
+    void tryAcquire_clientsBeyondMaxClientsShareOneBucket() {
+
+        for (String client : new String[]{"a", "b", "c"}) {
+            assertEquals(0, reviewRateLimiter.tryAcquire(client));
+        }
+
+        // none of the 3 buckets is idle yet : d and e share the bucket of the other clients
+        assertEquals(0, reviewRateLimiter.tryAcquire("d"));
+        assertEquals(0, reviewRateLimiter.tryAcquire("e"));
+        assertEquals(0, reviewRateLimiter.tryAcquire("d"));
+        assertTrue(reviewRateLimiter.tryAcquire("e") > 0);
+
+        // once the buckets are full again they are dropped and f gets its own
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, reviewRateLimiter.tryAcquire("f"));
+        }
+        assertEquals(0, reviewRateLimiter.tryAcquire("d"));
+    }
+}
@@ -0,0 +1,210 @@
+package com.mylearning.moviereviewservice.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mylearning.moviecommons.scheduler.BlockingScheduler;
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.domain.ReviewIngestOutcome;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
+import com.mylearning.moviereviewservice.service.MovieRatingAggregator;
+import com.mylearning.moviereviewservice.service.ReviewBulkIngestService;
+import com.mylearning.moviereviewservice.service.ReviewWriteHook;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewBulkIngestServiceTest {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+    private final ReactiveBulkOperations bulkOperations = Mockito.mock(ReactiveBulkOperations.class);
+    private final MovieRatingAggregator movieRatingAggregator = Mockito.mock(MovieRatingAggregator.class);
+
+    private ReviewBulkIngestService reviewBulkIngestService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class)).thenReturn(bulkOperations);
+        Mockito.when(bulkOperations.insert(Mockito.anyList())).thenReturn(bulkOperations);
+        Mockito.when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        Mockito.when(movieRatingAggregator.addAll(Mockito.any())).thenReturn(Mono.empty());
+
+        reviewBulkIngestService = new ReviewBulkIngestService(reactiveMongoTemplate, movieRatingAggregator,
+                new ReviewEventPublisher(new ReviewTopicRegistry()), new ObjectMapper(), 2, List.of(), null);
+    }
+
+    @Test
+    void ingest_outcomesInInputOrder() {
+
+        var reviews = Flux.just(
+                "{\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}",
+                "{\"comment\":\"Awesome Movie1\",\"rating\":-9.0}",
+                "{\"reviewId\":\"3\",\"movieInfoId\":2,\"comment\":\"Excellent Movie\",\"rating\":8.0}");
+
+        StepVerifier.create(reviewBulkIngestService.ingest(reviews))
+                .assertNext(outcome -> {
+                    assertEquals(0, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.CREATED, outcome.getStatus());
+                    assertNotNull(outcome.getReviewId());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(1, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.REJECTED, outcome.getStatus());
+                    assertEquals("rating.movieInfoId : must not be null,rating.negative : please pass a non-negative value", outcome.getError());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(2, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.CREATED, outcome.getStatus());
+                    assertEquals("3", outcome.getReviewId());
+                })
+                .verifyComplete();
+
+        // one bulk insert and one aggregate update per batch (batch size 2 => 2 batches)
+        Mockito.verify(bulkOperations, Mockito.times(2)).execute();
+        Mockito.verify(movieRatingAggregator, Mockito.times(2)).addAll(Mockito.any());
+        Mockito.verify(bulkOperations).insert(Mockito.argThat((List<?> batch) -> batch.size() == 1 && ((Review) batch.get(0)).getReviewId().equals("3")));
+    }
+
+    @Test
+    void ingest_writeFailureReportedPerRecord() {
+
+        Mockito.when(bulkOperations.execute()).thenReturn(Mono.error(new IllegalStateException("connection reset")));
+
+        StepVerifier.create(reviewBulkIngestService.ingest(Flux.just("{\"reviewId\":\"1\",\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}")))
+                .assertNext(outcome -> {
+                    assertEquals(ReviewIngestOutcome.Status.FAILED, outcome.getStatus());
+                    assertEquals("connection reset", outcome.getError());
+                })
+                .verifyComplete();
+
+        Mockito.verify(movieRatingAggregator).addAll(List.of());
+    }
+
+    @Test
+    void ingest_malformedLineRejectedAlone() {
+
+        var lines = Flux.just(
+                "{\"reviewId\":\"1\",\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}",
+                "",
+                "{\"movieInfoId\":1,\"comment\":",
+                "{\"reviewId\":\"3\",\"movieInfoId\":2,\"comment\":\"Excellent Movie\",\"rating\":8.0}");
+
+        StepVerifier.create(reviewBulkIngestService.ingest(lines))
+                .assertNext(outcome -> assertEquals(ReviewIngestOutcome.Status.CREATED, outcome.getStatus()))
+                .assertNext(outcome -> {
+                    assertEquals(1, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.REJECTED, outcome.getStatus());
+                    assertTrue(outcome.getError().startsWith("malformed : "), outcome.getError());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(2, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.CREATED, outcome.getStatus());
+                })
+                .verifyComplete();
+    }
+
+    // valid JSON that is not an object : rejected like a syntax error, the rest of the stream goes on
+    @Test
+    void ingest_nonObjectLinesRejected() {
+
+        var lines = Flux.just(
+                "null",
+                "[1, 2]",
+                "42",
+                "{\"reviewId\":\"3\",\"movieInfoId\":2,\"comment\":\"Excellent Movie\",\"rating\":8.0}");
+
+        StepVerifier.create(reviewBulkIngestService.ingest(lines))
+                .assertNext(outcome -> {
+                    assertEquals(0, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.REJECTED, outcome.getStatus());
+                    assertEquals("malformed : not a JSON object", outcome.getError());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(ReviewIngestOutcome.Status.REJECTED, outcome.getStatus());
+                    assertTrue(outcome.getError().startsWith("malformed : "), outcome.getError());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(ReviewIngestOutcome.Status.REJECTED, outcome.getStatus());
+                    assertTrue(outcome.getError().startsWith("malformed : "), outcome.getError());
+                })
+                .assertNext(outcome -> {
+                    assertEquals(3, outcome.getIndex());
+                    assertEquals(ReviewIngestOutcome.Status.CREATED, outcome.getStatus());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void ingest_writeConcernErrorReportedAsUnknown() {
+
+        var writeConcernError = new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out", new BsonDocument());
+        Mockito.when(bulkOperations.execute()).thenReturn(Mono.error(new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(), writeConcernError, new ServerAddress(), Set.of())));
+
+        StepVerifier.create(reviewBulkIngestService.ingest(Flux.just("{\"reviewId\":\"1\",\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}")))
+                .assertNext(outcome -> {
+                    assertEquals(ReviewIngestOutcome.Status.UNKNOWN, outcome.getStatus());
+                    assertEquals("write concern : waiting for replication timed out", outcome.getError());
+                })
+                .verifyComplete();
+
+        Mockito.verify(movieRatingAggregator).addAll(List.of());
+    }
+
+    @Test
+    void ingest_writeHooksOffloadedOncePerBatch() {
+
+        var blockingScheduler = new BlockingScheduler(BlockingScheduler.Mode.AUTO, 2, 10);
+        var hookCalls = new ArrayList<String>();
+        ReviewWriteHook slowHook = new ReviewWriteHook() {
+            @Override
+            public void saved(Review review) {
+                try {
+                    Thread.sleep(5); // a JDBC insert
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                hookCalls.add(review.getReviewId() + "@" + Thread.currentThread().getName());
+            }
+
+            @Override
+            public void deleted(Review review) {
+            }
+        };
+        var withHook = new ReviewBulkIngestService(reactiveMongoTemplate, movieRatingAggregator,
+                new ReviewEventPublisher(new ReviewTopicRegistry()), new ObjectMapper(), 2, List.of(slowHook), blockingScheduler);
+
+        var reviews = Flux.just(
+                        "{\"reviewId\":\"1\",\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}",
+                        "{\"reviewId\":\"2\",\"movieInfoId\":1,\"comment\":\"Awesome Movie1\",\"rating\":9.0}",
+                        "{\"reviewId\":\"3\",\"movieInfoId\":2,\"comment\":\"Excellent Movie\",\"rating\":8.0}")
+                .publishOn(Schedulers.parallel()); // decoded on an event loop in the service
+
+        StepVerifier.create(withHook.ingest(reviews))
+                .expectNextCount(3)
+                .verifyComplete();
+        blockingScheduler.destroy();
+
+        assertEquals(3, hookCalls.size());
+        hookCalls.forEach(call -> assertTrue(call.contains("@blocking"), call));
+    }
+}
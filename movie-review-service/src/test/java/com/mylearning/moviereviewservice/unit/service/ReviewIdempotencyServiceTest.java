@@ -0,0 +1,187 @@
+package com.mylearning.moviereviewservice.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import com.mylearning.moviereviewservice.domain.IdempotencyRecord;
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.exception.IdempotencyConflictException;
+import com.mylearning.moviereviewservice.exception.IdempotencyKeyMismatchException;
+import com.mylearning.moviereviewservice.service.ReviewIdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewIdempotencyServiceTest {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+
+    private final ReviewIdempotencyService reviewIdempotencyService = new ReviewIdempotencyService(reactiveMongoTemplate, new ObjectMapper(), 100, Duration.ofSeconds(30));
+
+    private final AtomicInteger saves = new AtomicInteger();
+
+    // the hash the service stores for new Review(null, 1L, "Awesome Movie", 9.0)
+    private String requestHash;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(reactiveMongoTemplate.updateFirst(Mockito.any(Query.class), Mockito.any(Update.class), Mockito.eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    requestHash = invocation.<IdempotencyRecord>getArgument(0).getRequestHash();
+                    return Mono.error(new DuplicateKeyException("duplicate key"));
+                });
+        // one submission to learn the fingerprint, answered from a claim that has no review yet and a running lease
+        Mockito.when(reactiveMongoTemplate.findById("fingerprint", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("fingerprint", "none", null, Instant.now().plusSeconds(30), false, Instant.now())));
+        Mockito.when(reactiveMongoTemplate.findById("none", Review.class)).thenReturn(Mono.empty());
+        reviewIdempotencyService.submit("fingerprint", new Review(null, 1L, "Awesome Movie", 9.0), this::save)
+                .onErrorResume(IdempotencyConflictException.class, ex -> Mono.empty())
+                .block();
+        Mockito.clearInvocations(reactiveMongoTemplate);
+    }
+
+    private Mono<Review> save(Review review) {
+        saves.incrementAndGet();
+        return Mono.just(review);
+    }
+
+    @Test
+    void submit_retryAnsweredFromCache() {
+
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), this::save))
+                .assertNext(submission -> assertEquals(false, submission.replayed()))
+                .verifyComplete();
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), this::save))
+                .assertNext(submission -> assertEquals(true, submission.replayed()))
+                .verifyComplete();
+
+        assertEquals(1, saves.get());
+        Mockito.verify(reactiveMongoTemplate, Mockito.times(1)).insert(Mockito.any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void submit_claimedKeyReplaysStoredReview() {
+
+        var stored = new Review("abc", 1L, "Awesome Movie", 9.0);
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("duplicate key")));
+        Mockito.when(reactiveMongoTemplate.findById("key-1", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("key-1", "abc", requestHash, Instant.now().plusSeconds(30), true, Instant.now())));
+        Mockito.when(reactiveMongoTemplate.findById("abc", Review.class))
+                .thenReturn(Mono.just(stored));
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), this::save))
+                .assertNext(submission -> {
+                    assertEquals(true, submission.replayed());
+                    assertEquals(stored, submission.review());
+                })
+                .verifyComplete();
+
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    void submit_sameKeyOtherBodyRejected() {
+
+        Mockito.when(reactiveMongoTemplate.findById("key-1", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("key-1", "abc", requestHash, Instant.now().plusSeconds(30), true, Instant.now())));
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 1.0), this::save))
+                .verifyError(IdempotencyKeyMismatchException.class);
+
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    void submit_claimWithinLeaseIsInProgress() {
+
+        Mockito.when(reactiveMongoTemplate.findById("key-1", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("key-1", "abc", requestHash, Instant.now().plusSeconds(30), false, Instant.now())));
+        Mockito.when(reactiveMongoTemplate.findById("abc", Review.class)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), this::save))
+                .verifyError(IdempotencyConflictException.class);
+
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    void submit_expiredLeaseTakenOverWithSameReviewId() {
+
+        Mockito.when(reactiveMongoTemplate.findById("key-1", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("key-1", "abc", requestHash, Instant.now().minusSeconds(1), false, Instant.now())));
+        Mockito.when(reactiveMongoTemplate.findById("abc", Review.class)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), this::save))
+                .assertNext(submission -> {
+                    assertEquals(false, submission.replayed());
+                    assertEquals("abc", submission.review().getReviewId());
+                })
+                .verifyComplete();
+
+        assertEquals(1, saves.get());
+    }
+
+    @Test
+    void submit_failureAfterTheWriteKeepsTheClaim() {
+
+        // the review is inserted, then the aggregate update fails
+        var stored = new Review("abc", 1L, "Awesome Movie", 9.0);
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review("abc", 1L, "Awesome Movie", 9.0),
+                        review -> Mono.error(new IllegalStateException("aggregate update failed"))))
+                .verifyError(IllegalStateException.class);
+
+        Mockito.verify(reactiveMongoTemplate, Mockito.never()).remove(Mockito.any(IdempotencyRecord.class));
+
+        // the retry takes over the claim (lease ended), its insert collides with the first one and replays it
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("duplicate key")));
+        Mockito.when(reactiveMongoTemplate.findById("key-1", IdempotencyRecord.class))
+                .thenReturn(Mono.just(new IdempotencyRecord("key-1", "abc", null, Instant.now().minusSeconds(1), false, Instant.now())));
+        Mockito.when(reactiveMongoTemplate.findById("abc", Review.class))
+                .thenReturn(Mono.empty(), Mono.just(stored));
+
+        StepVerifier.create(reviewIdempotencyService.submit("key-1", new Review("abc", 1L, "Awesome Movie", 9.0),
+                        review -> Mono.error(new DuplicateKeyException("duplicate key"))))
+                .assertNext(submission -> {
+                    assertEquals(true, submission.replayed());
+                    assertEquals(stored, submission.review());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void submit_cancelledWriteEndsTheLease() {
+
+        Mockito.when(reactiveMongoTemplate.insert(Mockito.any(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // the client disconnects while the review is being written
+        reviewIdempotencyService.submit("key-1", new Review(null, 1L, "Awesome Movie", 9.0), review -> Mono.never())
+                .subscribe()
+                .dispose();
+
+        Mockito.verify(reactiveMongoTemplate).updateFirst(Mockito.any(Query.class),
+                Mockito.argThat((Update update) -> update.modifies("leaseUntil")), Mockito.eq(IdempotencyRecord.class));
+    }
+}
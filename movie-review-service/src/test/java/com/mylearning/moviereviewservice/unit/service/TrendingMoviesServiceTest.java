@@ -0,0 +1,59 @@
+package com.mylearning.moviereviewservice.unit.service;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.domain.TrendingMovie;
+import com.mylearning.moviereviewservice.event.ReviewEvent;
+import com.mylearning.moviereviewservice.event.ReviewEventPublisher;
+import com.mylearning.moviereviewservice.event.ReviewEventType;
+import com.mylearning.moviereviewservice.event.ReviewTopicRegistry;
+import com.mylearning.moviereviewservice.service.TrendingMoviesService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrendingMoviesServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final TrendingMoviesService trendingMoviesService = new TrendingMoviesService(
+            new ReviewEventPublisher(new ReviewTopicRegistry()),
+            Duration.ofMinutes(15), Duration.ofMinutes(1), 2, Duration.ofSeconds(1));
+
+    @Test
+    void refresh_topKByReviewCount() {
+
+        record(1L, 9.0, NOW);
+        record(2L, 8.0, NOW);
+        record(2L, 6.0, NOW.plusSeconds(60));
+        record(3L, 7.0, NOW.plusSeconds(120));
+        record(3L, 7.0, NOW.plusSeconds(120));
+        record(3L, 10.0, NOW.plusSeconds(180));
+
+        trendingMoviesService.refresh(NOW.plusSeconds(180));
+
+        assertEquals(List.of(
+                new TrendingMovie(3L, 3, 8.0),
+                new TrendingMovie(2L, 2, 7.0)), trendingMoviesService.trending());
+    }
+
+    @Test
+    void refresh_oldBucketsLeaveTheWindow() {
+
+        record(1L, 9.0, NOW);
+        record(1L, 9.0, NOW);
+        record(2L, 8.0, NOW.plus(Duration.ofMinutes(10)));
+
+        trendingMoviesService.refresh(NOW.plus(Duration.ofMinutes(16)));
+
+        assertEquals(List.of(new TrendingMovie(2L, 1, 8.0)), trendingMoviesService.trending());
+    }
+
+    private void record(Long movieInfoId, Double rating, Instant timestamp) {
+        var review = new Review(null, movieInfoId, "Awesome Movie", rating);
+        trendingMoviesService.record(new ReviewEvent(0, ReviewEventType.CREATED, null, movieInfoId, review, timestamp));
+    }
+}
@@ -0,0 +1,46 @@
+package com.mylearning.moviereviewservice.unit.validator;
+
+import com.mylearning.moviereviewservice.domain.Review;
+import com.mylearning.moviereviewservice.validator.ReviewFieldValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewFieldValidatorTest {
+
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    static Stream<Review> reviews() {
+        return Stream.of(
+                new Review(null, 1L, "Awesome Movie", 9.0),
+                new Review(null, 1L, "Awesome Movie", 0.0),
+                new Review(null, 1L, "Awesome Movie", -0.0),
+                new Review(null, 1L, "Awesome Movie", Double.NaN),
+                new Review(null, 1L, "Awesome Movie", null),
+                new Review(null, 1L, null, -9.0),
+                new Review(null, null, "Awesome Movie", 9.0),
+                new Review(null, null, "Awesome Movie", -9.0),
+                new Review(null, null, null, null));
+    }
+
+    // same result as the Bean Validation path (validate2 in ReviewHandler)
+    @ParameterizedTest
+    @MethodSource("reviews")
+    void validate_sameMessagesAsBeanValidation(Review review) {
+
+        var violations = validator.validate(review);
+        String expected = violations.isEmpty() ? null : violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(","));
+
+        assertEquals(expected, ReviewFieldValidator.validate(review));
+    }
+}
@@ -1,12 +1,20 @@
 package com.mylearning.movieservice.client;
 
+import com.mylearning.moviecommons.tracing.SignalTracer;
+import com.mylearning.moviecontracts.MovieInfo;
 import com.mylearning.movieservice.exception.MoviesInfoClientException;
 import com.mylearning.movieservice.exception.MoviesInfoServerException;
-import com.mylearning.movieservice.model.MovieInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
@@ -16,6 +24,8 @@ import reactor.util.retry.Retry;
 
 import java.net.ConnectException;
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Component
 @Slf4j
@@ -26,15 +36,46 @@ public class MovieInfoRestClient {
 
     private final WebClient webClient;
 
-    public MovieInfoRestClient(WebClient webClient) {
+    // the calls used to end with .log(), now traced only when switched on with the tracing endpoint (JMX)
+    private final SignalTracer.Endpoint retrieveTrace;
+    private final SignalTracer.Endpoint streamTrace;
+
+    // the call itself is timed by Spring Boot (http.client.requests), these count what the timer cannot see
+    private final Counter retries;
+    private final Counter retriesExhausted;
+
+    public MovieInfoRestClient(WebClient webClient, SignalTracer signalTracer, ObjectProvider<MeterRegistry> meterRegistry) {
         this.webClient = webClient;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.retries = Counter.builder("movie.client.retries").tag("client", "movie-info-service")
+                .description("Downstream calls retried").register(registry);
+        this.retriesExhausted = Counter.builder("movie.client.retries.exhausted").tag("client", "movie-info-service")
+                .description("Downstream calls that failed after the last retry").register(registry);
+        this.retrieveTrace = signalTracer.endpoint("MovieInfoRestClient.retrieveMovieInfo");
+        this.streamTrace = signalTracer.endpoint("MovieInfoRestClient.retrieveMovieInfoStream");
     }
 
     public Mono<MovieInfo> retrieveMovieInfo(String movieId) {
+        return retrieveMovieInfo(movieId, MovieInfo.class, headers -> {
+        });
+    }
+
+    /**
+     * The movie-info-service response body as received, not decoded : one joined (pooled) buffer, the caller owns it
+     * and must write it out or release it (DataBufferUtils.release). Same status handling and retries as
+     * {@link #retrieveMovieInfo(String)}. Always JSON, never the Smile the WebClient asks for by default.
+     */
+    public Mono<DataBuffer> retrieveMovieInfoJson(String movieId) {
+        return retrieveMovieInfo(movieId, DataBuffer.class,
+                headers -> headers.setAccept(List.of(MediaType.APPLICATION_JSON)));
+    }
+
+    private <T> Mono<T> retrieveMovieInfo(String movieId, Class<T> bodyType, Consumer<HttpHeaders> headers) {
         var url = movieInfoServiceUrl.concat("/{movieId}");
 
         return webClient.get()
                 .uri(url, movieId)
+                .headers(headers)
                 .retrieve()
                 .onStatus(httpStatus -> httpStatus.is4xxClientError(), clientResponse -> {
                     log.error("Client Exception in MovieInfoService: " + clientResponse.statusCode().value());
@@ -57,21 +98,20 @@ public class MovieInfoRestClient {
                                     clientResponse.statusCode().value()
                             )));
                 })
-                .bodyToMono(MovieInfo.class) // decode only if 2xx success
+                .bodyToMono(bodyType) // decode only if 2xx success
                 // retry 3 times with fixed delay
                 .retryWhen(
                         Retry.fixedDelay(3, Duration.ofSeconds(2))
                                 .filter(ex -> ex instanceof MoviesInfoServerException ||ex instanceof WebClientRequestException wcre && wcre.getCause() instanceof ConnectException) // only retry for server exceptions
+                                .doBeforeRetry(retrySignal -> retries.increment())
                                 //.onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure())  // after 3 retries,throw the last exception
                                 .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
-                                    //  max number of retries
-                                    System.out.println("Configured retries: " + retryBackoffSpec.maxAttempts);
-                                    // Using retrySignal (runtime info)
-                                    System.out.println("Retries actually done: " + retrySignal.totalRetries());
-                                    System.out.println("Last exception: " + retrySignal.failure().getMessage());
+                                    retriesExhausted.increment();
+                                    log.warn("MovieInfoService call failed after {} of {} retries", retrySignal.totalRetries(),
+                                            retryBackoffSpec.maxAttempts, retrySignal.failure());
                                     return retrySignal.failure(); // propagate last failure, .failure() returns that last exception.
                                 }))
-                .log();
+                .transform(retrieveTrace::trace);
 
         /*
         | Attempt | Action                        | Output                                                         |
@@ -79,7 +119,7 @@ public class MovieInfoRestClient {
         | 1       | Call fails                    | —                                                              |
         | 2       | Retry #1                      | —                                                              |
         | 3       | Retry #2                      | —                                                              |
-        | 4       | Retry #3 (last attempt) fails | Prints "Retries configured: 3" and "Number of retries done: 3" |
+        | 4       | Retry #3 (last attempt) fails | Logs "failed after 3 of 3 retries" with the last exception     |
         */
     }
 
@@ -89,6 +129,7 @@ public class MovieInfoRestClient {
 
         return webClient.get()
                 .uri(url)
+                .accept(MediaType.TEXT_EVENT_STREAM) // the endpoint only produces SSE
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, (clientResponse -> {
                     log.info("Status code is: {}", clientResponse.statusCode().value());
@@ -101,8 +142,8 @@ public class MovieInfoRestClient {
                             .flatMap(response -> Mono.error(new MoviesInfoServerException(response)));
                 }))
                 .bodyToFlux(MovieInfo.class)
-                .retry(3)
-                .log();
+                .retryWhen(Retry.max(3).doBeforeRetry(retrySignal -> retries.increment())) // same as retry(3), counted
+                .transform(streamTrace::trace);
 
     }
 
@@ -1,16 +1,21 @@
 package com.mylearning.movieservice.client;
 
+import com.mylearning.moviecommons.tracing.SignalTracer;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.moviecontracts.ReviewApi;
 import com.mylearning.movieservice.exception.ReviewsClientException;
 import com.mylearning.movieservice.exception.ReviewsServerException;
-import com.mylearning.movieservice.model.Review;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -28,8 +33,24 @@ public class ReviewRestClient {
 
     private final WebClient webClient;
 
-    public ReviewRestClient(WebClient webClient) {
+    // the calls used to end with .log(), now traced only when switched on with the tracing endpoint (JMX)
+    private final SignalTracer.Endpoint retrieveTrace;
+
+    // the call itself is timed by Spring Boot (http.client.requests), these count what the timer cannot see
+    private final Counter retries;
+    private final Counter retriesExhausted;
+    private final Counter notFoundFallbacks;
+
+    public ReviewRestClient(WebClient webClient, SignalTracer signalTracer, ObjectProvider<MeterRegistry> meterRegistry) {
         this.webClient = webClient;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.retries = Counter.builder("movie.client.retries").tag("client", "movie-review-service")
+                .description("Downstream calls retried").register(registry);
+        this.retriesExhausted = Counter.builder("movie.client.retries.exhausted").tag("client", "movie-review-service")
+                .description("Downstream calls that failed after the last retry").register(registry);
+        this.notFoundFallbacks = Counter.builder("movie.client.fallbacks").tag("client", "movie-review-service").tag("reason", "not_found")
+                .description("Downstream 404s answered with an empty result").register(registry);
+        this.retrieveTrace = signalTracer.endpoint("ReviewRestClient.retrieveReviews");
     }
 
     public Flux<Review> retrieveReviews(String movieId) {
@@ -37,18 +58,18 @@ public class ReviewRestClient {
             return Flux.error(new IllegalArgumentException("movieId must not be null or empty"));
         }
 
-        var url = UriComponentsBuilder.fromHttpUrl(reviewServiceUrl)
-                .queryParam("movieInfoId", movieId)
-                .buildAndExpand()
-                .toUriString();
+        // a uri template, not the expanded url: the template is the "uri" tag of http.client.requests,
+        // one expanded url per movie would give every movieId its own timer
+        var url = reviewServiceUrl.concat("?" + ReviewApi.MOVIE_INFO_ID + "={movieInfoId}");
 
         //ResponseSpec onStatus(Predicate<HttpStatusCode> statusPredicate, Function<ClientResponse, Mono<? extends Throwable>> exceptionFunction);
         return webClient.get()
-                .uri(url)
+                .uri(url, movieId)
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> {
                     log.error("4xx error, status code: {}", clientResponse.statusCode().value());
                     if (clientResponse.statusCode().equals(HttpStatus.NOT_FOUND)) {
+                        notFoundFallbacks.increment();
                         return Mono.empty();
                     }
                     return clientResponse.bodyToMono(String.class)
@@ -62,11 +83,13 @@ public class ReviewRestClient {
                 .bodyToFlux(Review.class)
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(throwable -> throwable instanceof ReviewsServerException || throwable instanceof WebClientRequestException webClientRequestException && webClientRequestException.getCause() instanceof ConnectException)
+                        .doBeforeRetry(retrySignal -> retries.increment())
                         .onRetryExhaustedThrow((spec, signal) -> {
                             log.error("Retry exhausted");
+                            retriesExhausted.increment();
                             return Exceptions.propagate(signal.failure()); //Wraps the exception in a RuntimeException if it’s a checked exception. return Mono.error(signal.failure());
                         }))
-                .log();
+                .transform(retrieveTrace::trace);
     }
 
 }
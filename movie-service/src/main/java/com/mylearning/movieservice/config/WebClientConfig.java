@@ -1,15 +1,24 @@
 package com.mylearning.movieservice.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class WebClientConfig {
 
+    // movie-info-service and movie-review-service answer in Smile when asked first (SmileCodecAutoConfiguration of movie-commons),
+    // JSON stays acceptable for a downstream that cannot. Calls that need something else set their own Accept.
+    @Value("${restClient.accept:application/x-jackson-smile, application/json;q=0.9}")
+    private String accept;
+
     @Bean
     public WebClient webClient(WebClient.Builder builder) {
-        return builder.build();
+        return builder
+                .defaultHeader(HttpHeaders.ACCEPT, accept)
+                .build();
     }
 }
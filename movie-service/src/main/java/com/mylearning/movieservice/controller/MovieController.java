@@ -1,15 +1,23 @@
 package com.mylearning.movieservice.controller;
 
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecontracts.MovieInfo;
 import com.mylearning.movieservice.client.MovieInfoRestClient;
 import com.mylearning.movieservice.client.ReviewRestClient;
 import com.mylearning.movieservice.model.Movie;
-import com.mylearning.movieservice.model.MovieInfo;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -18,11 +26,16 @@ public class MovieController {
 
     private final MovieInfoRestClient moviesInfoRestClient;
     private final ReviewRestClient reviewsRestClient;
+    private final ObservationRegistry observationRegistry;
+    private final StreamDrain streamDrain;
 
 
-    public MovieController(MovieInfoRestClient moviesInfoRestClient, ReviewRestClient reviewsRestClient) {
+    public MovieController(MovieInfoRestClient moviesInfoRestClient, ReviewRestClient reviewsRestClient,
+                           StreamDrain streamDrain, ObjectProvider<ObservationRegistry> observationRegistry) {
         this.moviesInfoRestClient = moviesInfoRestClient;
         this.reviewsRestClient = reviewsRestClient;
+        this.streamDrain = streamDrain;
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
     }
 
     @GetMapping("/{id}")
@@ -33,14 +46,27 @@ public class MovieController {
                     var reviewList = reviewsRestClient.retrieveReviews(movieId) //Flux<Review>
                             .collectList(); //Mono<List<Review>>
                     return reviewList.map(reviews -> new Movie(movieInfo, reviews)); // Mono<Movie>
-                });
+                })
+                // "movie.retrieve" span around both downstream calls, the WebClient spans (and the traceparent
+                // header they send to movie-info-service and movie-review-service) become its children
+                .name("movie.retrieve")
+                .tap(Micrometer.observation(observationRegistry));
     }
 
 
     //@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<MovieInfo> retrieveMovieInfos(){
-        return moviesInfoRestClient.retrieveMovieInfoStream();
+    // ends with the drain event when this pod shuts down (StreamDrain), which then refuses new subscribers. The
+    // drain event of movie-info-service itself carries no data, the client skips it and the stream just completes
+    public ResponseEntity<Flux<ServerSentEvent<MovieInfo>>> retrieveMovieInfos(){
+        if (streamDrain.isDraining()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(streamDrain.retryAfterSeconds()))
+                    .build();
+        }
+        return ResponseEntity.ok(streamDrain.drainable(
+                moviesInfoRestClient.retrieveMovieInfoStream().map(movieInfo -> ServerSentEvent.builder(movieInfo).build()),
+                StreamDrain::drainEvent));
     }
 
 }
@@ -0,0 +1,85 @@
+package com.mylearning.movieservice.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.movieservice.client.MovieInfoRestClient;
+import com.mylearning.movieservice.client.ReviewRestClient;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * GET /api/v1/movies/{id} without decoding the MovieInfo : the bytes movie-info-service sent are written between
+ * a pre-encoded {"movieInfo": and ,"reviewList":[...]}, only the reviews are encoded here.
+ * Same JSON shape as MovieController#retrieveMovieById, but the movieInfo object is exactly the upstream one
+ * (field order, unknown fields and all).
+ */
+@Component
+@ConditionalOnProperty(name = "movie-service.pass-through.enabled", havingValue = "true")
+public class MoviePassThroughHandler {
+
+    private static final byte[] MOVIE_INFO_FIELD = "{\"movieInfo\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REVIEW_LIST_FIELD = ",\"reviewList\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END_OBJECT = "}".getBytes(StandardCharsets.UTF_8);
+
+    private final MovieInfoRestClient movieInfoRestClient;
+    private final ReviewRestClient reviewRestClient;
+    private final ObjectWriter reviewListWriter;
+    private final ObservationRegistry observationRegistry;
+
+    public MoviePassThroughHandler(MovieInfoRestClient movieInfoRestClient, ReviewRestClient reviewRestClient,
+                                   ObjectMapper objectMapper, ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.movieInfoRestClient = movieInfoRestClient;
+        this.reviewRestClient = reviewRestClient;
+        this.reviewListWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Review.class));
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+
+    public Mono<ServerResponse> retrieveMovieById(ServerRequest request) {
+        String movieId = request.pathVariable("id");
+
+        return movieInfoRestClient.retrieveMovieInfoJson(movieId)
+                .flatMap(movieInfoJson -> reviewRestClient.retrieveReviews(movieId)
+                        .collectList()
+                        .map(reviews -> compose(movieInfoJson, reviews))
+                        // until compose hands it over to the response, the upstream buffer is ours to release
+                        .doOnError(ex -> DataBufferUtils.release(movieInfoJson))
+                        .doOnCancel(() -> DataBufferUtils.release(movieInfoJson)))
+                // both downstream calls resolved before the status is set : their errors still map to a status
+                .flatMap(body -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(BodyInserters.fromDataBuffers(body)))
+                .name("movie.retrieve")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    private Flux<DataBuffer> compose(DataBuffer movieInfoJson, List<Review> reviews) {
+        byte[] reviewList;
+        try {
+            reviewList = reviewListWriter.writeValueAsBytes(reviews);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to encode the reviews of the movie", ex);
+        }
+        // wrap : no copy, the constant arrays are only ever read
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        return Flux.just(buffers.wrap(MOVIE_INFO_FIELD), movieInfoJson, buffers.wrap(REVIEW_LIST_FIELD),
+                buffers.wrap(reviewList), buffers.wrap(END_OBJECT));
+    }
+}
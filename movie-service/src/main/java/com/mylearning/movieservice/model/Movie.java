@@ -1,15 +1,10 @@
 package com.mylearning.movieservice.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
 
 import java.util.List;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class Movie {
-    private MovieInfo movieInfo;
-    private List<Review> reviewList;
+// the /api/v1/movies/{id} response, MovieInfo and Review are the shared contracts of movie-info / movie-review-service
+public record Movie(MovieInfo movieInfo, List<Review> reviewList) {
 }
@@ -0,0 +1,46 @@
+package com.mylearning.movieservice.router;
+
+import com.mylearning.movieservice.exception.MoviesInfoClientException;
+import com.mylearning.movieservice.handler.MoviePassThroughHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/*
+ movie-service.pass-through.enabled=true => GET /api/v1/movies/{id} is served here instead of MovieController :
+ router functions are mapped before @RequestMapping methods. Only for JSON clients (the upstream bytes are JSON),
+ /stream and every other Accept still reach the controller.
+*/
+@Configuration
+@ConditionalOnProperty(name = "movie-service.pass-through.enabled", havingValue = "true")
+@Slf4j
+public class MoviePassThroughRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> moviePassThroughRoute(MoviePassThroughHandler moviePassThroughHandler) {
+        return route()
+                .GET("/api/v1/movies/{id}", accept(MediaType.APPLICATION_JSON).and(path("/api/v1/movies/stream").negate()),
+                        moviePassThroughHandler::retrieveMovieById)
+                // the @RestControllerAdvice does not see router functions, same mapping as GlobalExceptionHandler
+                .onError(MoviesInfoClientException.class, (ex, request) -> {
+                    var clientException = (MoviesInfoClientException) ex;
+                    log.error("Exception caught in moviePassThroughRoute :  {} ", ex.getMessage(), ex);
+                    return ServerResponse.status(HttpStatus.valueOf(clientException.getStatusCode()))
+                            .bodyValue(clientException.getMessage());
+                })
+                .onError(RuntimeException.class, (ex, request) -> {
+                    log.error("Exception caught in moviePassThroughRoute :  {} ", ex.getMessage(), ex);
+                    return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(ex.getMessage());
+                })
+                .build();
+    }
+}
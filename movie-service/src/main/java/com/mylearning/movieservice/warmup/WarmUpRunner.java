@@ -0,0 +1,96 @@
+package com.mylearning.movieservice.warmup;
+
+import com.mylearning.moviecommons.warmup.WarmUpDriver;
+import com.mylearning.moviecommons.warmup.WarmUpReport;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.movieservice.model.Movie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static com.mylearning.moviecommons.codec.SmileCodecAutoConfiguration.SMILE;
+
+// Opt-in JIT warm-up (warmup.enabled) : right after a deploy the controller, the WebClients and the codecs run
+// interpreted, the first thousands of real requests pay for it in p99. This runs warmup.iterations rounds of synthetic
+// traffic first, while the readiness probe still says REFUSING_TRAFFIC : Spring Boot only publishes ACCEPTING_TRAFFIC
+// once the ApplicationReadyEvent listeners returned, and this one blocks until the budget (or max-duration) is spent.
+// Every round (WarmUpDriver) :
+//  - when warmup.movie-id names a movie that exists downstream, /api/v1/movies/{id} in JSON and Smile : the controller
+//    and both downstream calls, read only. Unset, nothing leaves the service : an unknown id would end in
+//    GlobalExceptionHandler logging a stack trace per call, and the downstreams may not be up yet.
+//  - the server's own JSON / Smile codecs encoding and decoding a synthetic Movie, MovieInfo and List<Review>, the
+//    WebClients decode the downstream bodies with the same codecs
+// The requests carry X-Warm-Up, StartupTimingReport leaves them out. The p99 of the first and last tenth of the
+// calls is logged, the difference is what the real traffic does not pay anymore.
+@Component
+@Slf4j
+public class WarmUpRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean enabled;
+    private final String movieId;
+    private final WebClient.Builder webClientBuilder;
+    private final WarmUpDriver warmUpDriver;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(@Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:2000}") int iterations,
+                        @Value("${warmup.concurrency:4}") int concurrency,
+                        @Value("${warmup.max-duration:60s}") Duration maxDuration,
+                        @Value("${warmup.movie-id:}") String movieId,
+                        WebClient.Builder webClientBuilder,
+                        ServerCodecConfigurer serverCodecConfigurer) {
+        this.enabled = enabled;
+        this.movieId = movieId;
+        this.webClientBuilder = webClientBuilder;
+        this.warmUpDriver = new WarmUpDriver(iterations, concurrency, maxDuration, serverCodecConfigurer);
+    }
+
+    // null until a warm-up ran
+    public WarmUpReport report() {
+        return report;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        WebClient webClient = WarmUpDriver.localWebClient(webClientBuilder, context);
+        List<IntFunction<Mono<?>>> calls = new ArrayList<>();
+        if (!movieId.isBlank()) {
+            calls.add(i -> WarmUpDriver.get(webClient, MediaType.APPLICATION_JSON, "/api/v1/movies/{movieId}", movieId));
+            calls.add(i -> WarmUpDriver.get(webClient, SMILE, "/api/v1/movies/{movieId}", movieId));
+        }
+        calls.add(i -> warmUpDriver.codecs(ResolvableType.forClass(Movie.class), new Movie(movieInfo(i), reviews(i))));
+        calls.add(i -> warmUpDriver.codecs(ResolvableType.forClass(MovieInfo.class), movieInfo(i)));
+        calls.add(i -> warmUpDriver.codecs(ResolvableType.forClassWithGenerics(List.class, Review.class), reviews(i)));
+        report = warmUpDriver.run(calls);
+        log.info("Warm-up : {}", report);
+    }
+
+    private static MovieInfo movieInfo(int i) {
+        return new MovieInfo("warm-up-" + i, "Batman Begins " + i, 2005, List.of("Christian Bale", "Michael Cane"),
+                LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+    }
+
+    private static List<Review> reviews(int i) {
+        return List.of(new Review("warm-up-" + i, (long) i, "Awesome Movie", 9.0),
+                new Review("warm-up-" + (i + 1), (long) i, "Excellent Movie", 8.0));
+    }
+}
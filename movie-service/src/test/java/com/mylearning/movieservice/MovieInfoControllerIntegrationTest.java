@@ -65,8 +65,8 @@ public class MovieInfoControllerIntegrationTest {
                 .expectBody(Movie.class)
                 .consumeWith(movieEntityExchangeResult -> {
                             var movie = movieEntityExchangeResult.getResponseBody();
-                            assert Objects.requireNonNull(movie).getReviewList().size() == 2;
-                            assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                            assert Objects.requireNonNull(movie).reviewList().size() == 2;
+                            assertEquals("Batman Begins", movie.movieInfo().name());
                         }
                 );
     }
@@ -1,18 +1,20 @@
 package com.mylearning.movieservice;
 
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
 import com.mylearning.movieservice.client.MovieInfoRestClient;
 import com.mylearning.movieservice.client.ReviewRestClient;
 import com.mylearning.movieservice.controller.MovieController;
 import com.mylearning.movieservice.exception.MoviesInfoClientException;
 import com.mylearning.movieservice.exception.MoviesInfoServerException;
 import com.mylearning.movieservice.model.Movie;
-import com.mylearning.movieservice.model.MovieInfo;
-import com.mylearning.movieservice.model.Review;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
@@ -25,6 +27,7 @@ import java.util.Objects;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @WebFluxTest(controllers = MovieController.class)
+@Import(StreamDrain.class)
 @AutoConfigureWebTestClient
 public class MovieInfoControllerUnitTest {
 
@@ -62,8 +65,8 @@ public class MovieInfoControllerUnitTest {
                 .expectBody(Movie.class)
                 .consumeWith(movieEntityExchangeResult -> {
                             var movie = movieEntityExchangeResult.getResponseBody();
-                            assert Objects.requireNonNull(movie).getReviewList().size() == 3;
-                            assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                            assert Objects.requireNonNull(movie).reviewList().size() == 3;
+                            assertEquals("Batman Begins", movie.movieInfo().name());
                         }
                 );
     }
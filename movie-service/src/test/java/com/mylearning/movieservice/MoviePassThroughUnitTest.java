@@ -0,0 +1,84 @@
+package com.mylearning.movieservice;
+
+import com.mylearning.moviecommons.stream.StreamDrain;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.movieservice.client.MovieInfoRestClient;
+import com.mylearning.movieservice.client.ReviewRestClient;
+import com.mylearning.movieservice.controller.MovieController;
+import com.mylearning.movieservice.exception.MoviesInfoClientException;
+import com.mylearning.movieservice.handler.MoviePassThroughHandler;
+import com.mylearning.movieservice.router.MoviePassThroughRouter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WebFluxTest(controllers = MovieController.class)
+@Import({MoviePassThroughRouter.class, MoviePassThroughHandler.class, StreamDrain.class})
+@TestPropertySource(properties = "movie-service.pass-through.enabled=true")
+@AutoConfigureWebTestClient
+public class MoviePassThroughUnitTest {
+
+    // field order and the unknown "rating" would not survive a decode / encode round trip
+    private static final String MOVIE_INFO_JSON = """
+            {"name":"Batman Begins","movieId":"abc","rating":{"imdb":8.2},"year":2005,"cast":["Christian Bale"],"releaseDate":"2005-06-15","description":null}""";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private MovieInfoRestClient movieInfoRestClient;
+
+    @MockitoBean
+    private ReviewRestClient reviewRestClient;
+
+    @Test
+    void retrieveMovieById_embedsUpstreamJson() {
+        Mockito.when(movieInfoRestClient.retrieveMovieInfoJson(Mockito.anyString()))
+                .thenReturn(Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance
+                        .wrap(MOVIE_INFO_JSON.getBytes(StandardCharsets.UTF_8))));
+        Mockito.when(reviewRestClient.retrieveReviews(Mockito.anyString()))
+                .thenReturn(Flux.just(new Review("1", 1L, "Awesome Movie", 9.0)));
+
+        webTestClient.get()
+                .uri("/api/v1/movies/{id}", "abc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class)
+                .isEqualTo("{\"movieInfo\":" + MOVIE_INFO_JSON
+                        + ",\"reviewList\":[{\"reviewId\":\"1\",\"movieInfoId\":1,\"comment\":\"Awesome Movie\",\"rating\":9.0}]}");
+
+        Mockito.verify(movieInfoRestClient, Mockito.never()).retrieveMovieInfo(Mockito.anyString());
+    }
+
+    @Test
+    void retrieveMovieById_404() {
+        Mockito.when(movieInfoRestClient.retrieveMovieInfoJson(Mockito.anyString()))
+                .thenReturn(Mono.error(new MoviesInfoClientException("MovieNotFound", 404)));
+        Mockito.when(reviewRestClient.retrieveReviews(Mockito.anyString()))
+                .thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/movies/{id}", "abc")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class)
+                .consumeWith(result -> assertEquals("MovieNotFound", result.getResponseBody()));
+    }
+}
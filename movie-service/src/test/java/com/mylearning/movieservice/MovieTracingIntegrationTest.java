@@ -0,0 +1,116 @@
+package com.mylearning.movieservice;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@AutoConfigureWireMock(port = 8086)
+@AutoConfigureObservability(metrics = false) // tracing is switched off in tests unless asked for
+@TestPropertySource(
+        properties = {
+                "restClient.movie-info-service.url=http://localhost:8086/api/v1/movies/response-entity/getMovieInfo",
+                "restClient.review-service.url=http://localhost:8086/api/v1/review/search",
+                "management.tracing.sampling.probability=1.0"
+        })
+public class MovieTracingIntegrationTest {
+
+    // the in-memory collector, Spring Boot registers every SpanExporter bean with the tracer
+    @TestConfiguration
+    static class SpanCollectorConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private InMemorySpanExporter spans;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        spans.reset();
+    }
+
+    @Test
+    void retrieveMovieById_propagatesTheTraceToBothServices() {
+        var movieId = "abc";
+
+        WireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/api/v1/movies/response-entity/getMovieInfo/" + movieId))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieInfo.json")));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/api/v1/review/search"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        webTestClient.get()
+                .uri("/api/v1/movies/{id}", movieId)
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        List<SpanData> finished = awaitSpan("movie.retrieve");
+        SpanData retrieve = finished.stream().filter(span -> span.getName().equals("movie.retrieve")).findFirst().orElseThrow();
+        String traceId = retrieve.getTraceId();
+
+        // both downstream calls carried the same trace, with their own client span as parent
+        List<LoggedRequest> requests = WireMock.findAll(WireMock.getRequestedFor(WireMock.anyUrl()));
+        assertEquals(2, requests.size());
+        requests.forEach(request -> {
+            String traceparent = request.getHeader("traceparent");
+            assertTrue(traceparent != null && traceparent.startsWith("00-" + traceId + "-"), "traceparent " + traceparent);
+        });
+
+        // the controller span belongs to the server span of the request
+        assertTrue(finished.stream().anyMatch(span -> span.getSpanId().equals(retrieve.getParentSpanId())
+                && span.getKind() == SpanKind.SERVER));
+    }
+
+    private List<SpanData> awaitSpan(String name) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            List<SpanData> finished = spans.getFinishedSpanItems();
+            if (finished.stream().anyMatch(span -> span.getName().equals(name))
+                    && finished.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER)) {
+                return finished;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return spans.getFinishedSpanItems();
+    }
+}
@@ -0,0 +1,99 @@
+package com.mylearning.movieservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.mylearning.moviecontracts.MovieInfo;
+import com.mylearning.moviecontracts.Review;
+import com.mylearning.movieservice.model.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// movie-service asks both downstream services for Smile (WebClientConfig) and answers in Smile itself when asked,
+// browsers and anything else sending */* keep getting JSON
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@AutoConfigureWireMock(port = 8087)
+@TestPropertySource(
+        properties = {
+                "restClient.movie-info-service.url=http://localhost:8087/api/v1/movies/response-entity/getMovieInfo",
+                "restClient.review-service.url=http://localhost:8087/api/v1/review/search"
+        })
+public class MovieWireFormatIntegrationTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+
+    private final MovieInfo movieInfo = new MovieInfo("abc", "Batman Begins", 2005,
+            List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"), "Batman fights crime in Gotham");
+    private final List<Review> reviews = List.of(
+            new Review("1", 1L, "Awesome Movie", 9.0),
+            new Review("2", 1L, "Excellent Movie", 8.0));
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        WireMock.reset();
+        // only answered in Smile when Smile was asked for, anything else falls through to a 404
+        WireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/api/v1/movies/response-entity/getMovieInfo/abc"))
+                .withHeader("Accept", WireMock.containing(SMILE))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", SMILE)
+                        .withBody(smileMapper.writeValueAsBytes(movieInfo))));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/api/v1/review/search"))
+                .withHeader("Accept", WireMock.containing(SMILE))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", SMILE)
+                        .withBody(smileMapper.writeValueAsBytes(reviews))));
+    }
+
+    @Test
+    void retrieveMovieById_smileDownstream_jsonForTheBrowser() {
+        webTestClient.get()
+                .uri("/api/v1/movies/{id}", "abc")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.movieInfo.name").isEqualTo("Batman Begins")
+                .jsonPath("$.movieInfo.releaseDate").isEqualTo("2005-06-15")
+                .jsonPath("$.reviewList.length()").isEqualTo(2);
+    }
+
+    @Test
+    void retrieveMovieById_smileAllTheWay() {
+        webTestClient.get()
+                .uri("/api/v1/movies/{id}", "abc")
+                .accept(MediaType.parseMediaType(SMILE))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(SMILE)
+                .expectBody(Movie.class)
+                .consumeWith(result -> assertEquals(new Movie(movieInfo, reviews), result.getResponseBody()));
+    }
+}
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Cold start of the three services, plain exec jar against the startup build (Spring AOT + CDS + lazy init).
+#   mvn -Pstartup -pl movie-info-service,movie-review-service,movie-service -am verify -DskipTests
+#   ./startup-compare.sh [runs per variant, 5]
+# Every run is a fresh JVM. Time to first request is StartupTimingReport's log line (JVM start -> first answered
+# request), RSS is read right after that request. Medians are printed.
+# Nothing here needs Mongo or the downstream services : the probes are paths that answer without them.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=18090
+ROOT=$(cd "$(dirname "$0")" && pwd)
+VERSION=0.0.1-SNAPSHOT
+
+# service:probe path
+SERVICES=(
+  "movie-info-service:/flux-and-mono/flux"
+  "movie-review-service:/api/v1/review/trending"
+  "movie-service:/actuator/health"
+)
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+# prints "<first request ms> <rss KB>"
+start_once() {
+  local log=$1 probe=$2
+  shift 2
+  java -Dserver.port=$PORT "$@" >"$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 600); do
+    if curl -s -o /dev/null "http://localhost:$PORT$probe"; then
+      break
+    fi
+    sleep 0.05
+  done
+  local line=""
+  for _ in $(seq 1 20); do
+    line=$(grep -m1 "Startup timing : first request" "$log" || true)
+    [ -n "$line" ] && break
+    sleep 0.05
+  done
+  local rss
+  rss=$(ps -o rss= -p $pid | tr -d ' ')
+  kill $pid
+  wait $pid 2>/dev/null || true
+  if [ -z "$line" ]; then
+    echo "no startup timing in $log" >&2
+    exit 1
+  fi
+  echo "$(echo "$line" | sed -E 's/.* answered ([0-9]+) ms.*/\1/') $rss"
+}
+
+printf '%-22s %-9s %14s %10s\n' service variant first-req-ms rss-MB
+for entry in "${SERVICES[@]}"; do
+  service=${entry%%:*}
+  probe=${entry#*:}
+  target=$ROOT/$service/target
+  if [ ! -f "$target/startup/application.jsa" ]; then
+    echo "$service : no CDS archive, build it with mvn -Pstartup first" >&2
+    exit 1
+  fi
+  for variant in plain startup; do
+    results=$(mktemp)
+    for run in $(seq 1 "$RUNS"); do
+      log=$target/startup-compare-$variant-$run.log
+      if [ $variant = plain ]; then
+        start_once "$log" "$probe" -jar "$target/$service-$VERSION-exec.jar" >>"$results"
+      else
+        start_once "$log" "$probe" -XX:SharedArchiveFile="$target/startup/application.jsa" -Dspring.aot.enabled=true \
+          -Dspring.profiles.include=startup -jar "$target/startup/$service-$VERSION-exec.jar" >>"$results"
+      fi
+    done
+    first_request=$(cut -d' ' -f1 "$results" | median)
+    rss=$(cut -d' ' -f2 "$results" | median)
+    printf '%-22s %-9s %14s %10s\n' "$service" $variant "$first_request" $((rss / 1024))
+    rm -f "$results"
+  done
+done